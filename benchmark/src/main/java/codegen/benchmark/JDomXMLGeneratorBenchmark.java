@@ -0,0 +1,81 @@
+package codegen.benchmark;
+
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.jdom2.Document;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import codegen.ConfigProperties;
+import codegen.gen.CommonUtil;
+import codegen.gen.xml.JDomXMLGenerator;
+import codegen.table.Table;
+
+/**
+ * JDomXMLGenerator构建与写文件吞吐量，分配速率使用 -prof gc 查看
+ *
+ * @date: 2026/10/17
+ **/
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class JDomXMLGeneratorBenchmark {
+
+    @Param({"10", "1000", "10000"})
+    public int tableCount;
+
+    @Param({"1"})
+    public int genParallelism;
+
+    private Set<Table> tables;
+
+    private JDomXMLGenerator generator;
+
+    private Map<String, Document> documents;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        tables = SyntheticSchema.tables(tableCount);
+
+        ConfigProperties configProperties = new ConfigProperties();
+        configProperties.setBaseDir(Files.createTempDirectory("codegen-bench").toString());
+        configProperties.setEntityGenPkg("bench.entity");
+        configProperties.setMapperInterfaceGenPkg("bench.mapper");
+        configProperties.setMapperXmlGenAbsPath(configProperties.getBaseDir() + "/mapper");
+        configProperties.setGenParallelism(genParallelism);
+        CommonUtil.ensureDir(configProperties.getMapperXmlGenAbsPath());
+
+        generator = new JDomXMLGenerator();
+        generator.prepare(configProperties);
+        documents = createXML();
+    }
+
+    @Benchmark
+    public Map<String, Document> createXML() {
+        Map<String, Document> name2XML = new HashMap<>();
+        for (Table table : tables) {
+            name2XML.putAll(generator.createXMLForTable(table));
+        }
+        return name2XML;
+    }
+
+    @Benchmark
+    public void persistXML() {
+        generator.persistXML(documents);
+    }
+}
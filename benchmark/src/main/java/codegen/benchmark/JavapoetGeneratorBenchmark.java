@@ -0,0 +1,83 @@
+package codegen.benchmark;
+
+import java.nio.file.Files;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import com.squareup.javapoet.TypeSpec;
+import codegen.ConfigProperties;
+import codegen.gen.java.JavapoetGenerator;
+import codegen.table.Table;
+
+/**
+ * JavapoetGenerator各阶段吞吐量，分配速率使用 -prof gc 查看
+ *
+ * @date: 2026/10/17
+ **/
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class JavapoetGeneratorBenchmark {
+
+    @Param({"10", "1000", "10000"})
+    public int tableCount;
+
+    // 1:单线程 0:CPU核数
+    @Param({"1"})
+    public int genParallelism;
+
+    private Set<Table> tables;
+
+    private JavapoetGenerator generator;
+
+    private Map<String, TypeSpec> entities;
+
+    private Map<String, TypeSpec> examples;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        tables = SyntheticSchema.tables(tableCount);
+
+        ConfigProperties configProperties = new ConfigProperties();
+        configProperties.setBaseDir(Files.createTempDirectory("codegen-bench").toString());
+        configProperties.setEntityGenPkg("bench.entity");
+        configProperties.setMapperInterfaceGenPkg("bench.mapper");
+        configProperties.setMapperXmlGenAbsPath(configProperties.getBaseDir() + "/mapper");
+        configProperties.setGenParallelism(genParallelism);
+
+        generator = new JavapoetGenerator();
+        generator.prepare(configProperties);
+        entities = generator.buildEntities(tables);
+        examples = generator.buildQueryExamples(tables);
+    }
+
+    @Benchmark
+    public Map<String, TypeSpec> entity() {
+        return generator.buildEntities(tables);
+    }
+
+    @Benchmark
+    public Map<String, TypeSpec> example() {
+        return generator.buildQueryExamples(tables);
+    }
+
+    @Benchmark
+    public Map<String, TypeSpec> mapper() {
+        return generator.buildMapperInterfaces(tables, entities, examples);
+    }
+}
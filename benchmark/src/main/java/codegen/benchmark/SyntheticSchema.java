@@ -0,0 +1,58 @@
+package codegen.benchmark;
+
+import java.sql.Types;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import codegen.table.Table;
+import codegen.table.TableColumn;
+
+/**
+ * 生成用于基准测试的表结构，列数在5~60之间，固定随机种子保证每次相同
+ *
+ * @date: 2026/10/17
+ **/
+public class SyntheticSchema {
+
+    private static final int[] TYPES = {Types.BIGINT, Types.INTEGER, Types.TINYINT, Types.VARCHAR, Types.VARCHAR,
+            Types.VARCHAR, Types.CHAR, Types.DECIMAL, Types.TIMESTAMP, Types.DATE, Types.DOUBLE, Types.LONGVARCHAR};
+
+    private static final String[] TYPE_NAMES = {"BIGINT", "INT", "TINYINT", "VARCHAR", "VARCHAR", "VARCHAR", "CHAR",
+            "DECIMAL", "DATETIME", "DATE", "DOUBLE", "TEXT"};
+
+    public static Set<Table> tables(int tableCount) {
+        Random random = new Random(42);
+        Set<Table> tables = new HashSet<>();
+        for (int i = 0; i < tableCount; i++) {
+            Table table = new Table();
+            table.setName("bench_table_" + i);
+
+            TableColumn id = new TableColumn();
+            id.setColumnName("id");
+            id.setDataType(Types.BIGINT);
+            id.setTypeName("BIGINT");
+            id.setColumnSize(20);
+            id.setAutoIncrement(true);
+            id.setIndexed(true);
+            id.setUniqIndexed(true);
+            table.addColumn(id);
+            table.setPrimaryKeyColumn(id);
+
+            int columnCount = 5 + random.nextInt(56);
+            for (int j = 1; j < columnCount; j++) {
+                int type = random.nextInt(TYPES.length);
+                TableColumn column = new TableColumn();
+                column.setColumnName("column_" + j + "_" + TYPE_NAMES[type].toLowerCase());
+                column.setDataType(TYPES[type]);
+                column.setTypeName(TYPE_NAMES[type]);
+                column.setColumnSize(1 + random.nextInt(255));
+                column.setNullable(random.nextBoolean());
+                column.setIndexed(random.nextInt(5) == 0);
+                column.setUniqIndexed(column.isIndexed() && random.nextInt(4) == 0);
+                table.addColumn(column);
+            }
+            tables.add(table);
+        }
+        return tables;
+    }
+}
@@ -1,6 +1,18 @@
 package codegen;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import org.apache.commons.lang3.EnumUtils;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.ibatis.mapping.ResultSetType;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import codegen.gen.GenFileWriter;
+import codegen.gen.GenManifest;
+import codegen.gen.GenMetrics;
 
 /**
  *
@@ -9,9 +21,42 @@ import org.apache.commons.lang3.StringUtils;
  **/
 public class ConfigProperties {
 
-    // 0:JDBC
+    // 数据源名称，配置了datasources时用于区分各数据源(日志、默认快照文件名)，未配置时取序号
+    private String name;
+
+    // 0:JDBC 1:JDBC+表结构快照缓存 2:离线，只读表结构快照 3:MySQL information_schema 4:解析建表脚本
     private Integer fetchType = 0;
 
+    // fetchType为0/1时读取元数据的方式，0:逐表读取 1:整库批量读取(依赖MySQL的information_schema) 2:多连接并行逐表读取
+    private Integer jdbcFetchMode = 0;
+
+    // jdbcFetchMode为2时的并行度，即最多使用的连接数
+    private Integer fetchParallelism = 4;
+
+    // batchInsertXxx每条insert语句最多插入的行数
+    private Integer batchInsertMaxRows = 500;
+
+    // batchUpdateXxxByPk每条update语句最多更新的行数
+    private Integer batchUpdateMaxRows = 500;
+
+    // selectXxxsByPks每条语句in列表中最多的主键数
+    private Integer selectInMaxSize = 1000;
+
+    // selectXxxsCursor的fetchSize，未配置时MySQL/MariaDB驱动取Integer.MIN_VALUE(逐行流式读取)，其他驱动不设置
+    private Integer cursorFetchSize;
+
+    // selectXxxsCursor的resultSetType：FORWARD_ONLY/SCROLL_INSENSITIVE/SCROLL_SENSITIVE/DEFAULT
+    private String cursorResultSetType = "FORWARD_ONLY";
+
+    // 按表名的配置，覆盖上面的同名全局配置
+    private Map<String, TableProperties> tables = new HashMap<>();
+
+    // upsertXxx/batchUpsertXxx的数据库方言，默认mysql(on duplicate key update)，mysql8为行别名写法；为空时不生成upsert
+    private String upsertDialect = "mysql";
+
+    // mapper xml的生成方式，0:JDOM 1:StAX(XMLStreamWriter直接输出，不构建DOM)
+    private Integer xmlGenType = 0;
+
     private String driver;
 
     private String jdbcUrl;
@@ -30,8 +75,56 @@ public class ConfigProperties {
 
     private String mapperXmlGenAbsPath;
 
+    // 增量生成：只重写内容变化的文件，只删除已不存在的表对应的文件
+    private boolean incremental = false;
+
+    // 可复现输出：表按名称排序，生成文件中的时间替换为表结构hash，表结构不变时生成的文件字节级一致
+    private boolean reproducible = false;
+
+    // 共享Criteria：与列无关的Example/Criteria代码只生成一次(BaseExample/BaseCriteria)，每个表的Example只保留按列生成的方法
+    private boolean sharedCriteria = false;
+
+    // 生成时报告Example中没有索引的列(按这些列查询可能全表扫描)，输出到日志及codegen-metrics.json
+    private boolean reportUnindexedCriteria = false;
+
+    // 流式生成：边读取表结构边生成写入，不在内存中保留全部表的生成结果
+    private boolean streaming = false;
+
+    // 流式生成时已读取待生成的表的最大数量
+    private Integer streamBufferSize = 16;
+
+    // 生成代码/写文件的并行度，<=0时取CPU核数，1为单线程
+    private Integer genParallelism = 0;
+
+    // 建表脚本文件或目录(如flyway迁移目录)，fetchType为4时必填
+    private String ddlScriptPath;
+
+    // 表结构快照文件路径，fetchType为1/2时使用，默认 target/codegen-schema.snapshot
+    private String schemaSnapshotPath;
+
+    // 多数据源/多schema：每项覆盖根配置中的同名项，在一次执行中并发生成；由ConfigFileParser合并，不直接反序列化
+    @JsonIgnore
+    private List<ConfigProperties> datasources = new ArrayList<>();
+
+
+    @JsonIgnore
+    private GenManifest manifest;
+
+    @JsonIgnore
+    private GenMetrics metrics = new GenMetrics();
+
+    @JsonIgnore
+    private GenFileWriter fileWriter = new GenFileWriter();
+
+    // 一次执行中各阶段共用的生成线程池，由Mojo创建并在执行结束后关闭
+    @JsonIgnore
+    private ForkJoinPool genPool;
+
     public boolean validate(){
-        if(fetchType==0){
+        if(!datasources.isEmpty()){
+            return datasources.stream().allMatch(ConfigProperties::validate);
+        }
+        if(fetchType==0 || fetchType==1 || fetchType==3){
             if(StringUtils.isBlank(driver) ||
                     StringUtils.isBlank(jdbcUrl) ||
                     StringUtils.isBlank(username) ||
@@ -39,10 +132,65 @@ public class ConfigProperties {
                 return false;
             }
         }
+        if(fetchType==4 && StringUtils.isBlank(ddlScriptPath)){
+            return false;
+        }
+        if(!EnumUtils.isValidEnum(ResultSetType.class, cursorResultSetType) ||
+                tables.values().stream().map(TableProperties::getCursorResultSetType).filter(Objects::nonNull)
+                        .anyMatch(type -> !EnumUtils.isValidEnum(ResultSetType.class, type))){
+            return false;
+        }
 
         return true;
     }
 
+    /**
+     * 配置了datasources时为各数据源的配置，否则为自身
+     */
+    public List<ConfigProperties> datasourceList() {
+        if (datasources.isEmpty()) {
+            List<ConfigProperties> self = new ArrayList<>();
+            self.add(this);
+            return self;
+        }
+        return datasources;
+    }
+
+    /**
+     * 表的配置，未配置的项取全局配置
+     */
+    public TableProperties tableProperties(String tableName) {
+        TableProperties configured = tables.get(tableName);
+        TableProperties merged = new TableProperties();
+        if (Objects.nonNull(configured) && Objects.nonNull(configured.getCursorFetchSize())) {
+            merged.setCursorFetchSize(configured.getCursorFetchSize());
+        } else if (Objects.nonNull(cursorFetchSize)) {
+            merged.setCursorFetchSize(cursorFetchSize);
+        } else if (StringUtils.containsIgnoreCase(driver, "mysql") || StringUtils.containsIgnoreCase(driver, "mariadb")) {
+            // Integer.MIN_VALUE只对MySQL驱动有意义，其他驱动会报错
+            merged.setCursorFetchSize(Integer.MIN_VALUE);
+        }
+        merged.setCursorResultSetType(Objects.nonNull(configured) && Objects.nonNull(configured.getCursorResultSetType())
+                ? configured.getCursorResultSetType() : cursorResultSetType);
+        return merged;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public List<ConfigProperties> getDatasources() {
+        return datasources;
+    }
+
+    public void setDatasources(List<ConfigProperties> datasources) {
+        this.datasources = datasources;
+    }
+
     public String getBaseDir() {
         return baseDir;
     }
@@ -59,6 +207,94 @@ public class ConfigProperties {
         this.fetchType = fetchType;
     }
 
+    public Integer getJdbcFetchMode() {
+        return jdbcFetchMode;
+    }
+
+    public void setJdbcFetchMode(Integer jdbcFetchMode) {
+        this.jdbcFetchMode = jdbcFetchMode;
+    }
+
+    public Integer getFetchParallelism() {
+        return fetchParallelism;
+    }
+
+    public void setFetchParallelism(Integer fetchParallelism) {
+        this.fetchParallelism = fetchParallelism;
+    }
+
+    public Integer getBatchInsertMaxRows() {
+        return batchInsertMaxRows;
+    }
+
+    public void setBatchInsertMaxRows(Integer batchInsertMaxRows) {
+        this.batchInsertMaxRows = batchInsertMaxRows;
+    }
+
+    public Integer getBatchUpdateMaxRows() {
+        return batchUpdateMaxRows;
+    }
+
+    public void setBatchUpdateMaxRows(Integer batchUpdateMaxRows) {
+        this.batchUpdateMaxRows = batchUpdateMaxRows;
+    }
+
+    public Integer getSelectInMaxSize() {
+        return selectInMaxSize;
+    }
+
+    public void setSelectInMaxSize(Integer selectInMaxSize) {
+        this.selectInMaxSize = selectInMaxSize;
+    }
+
+    public boolean isReportUnindexedCriteria() {
+        return reportUnindexedCriteria;
+    }
+
+    public void setReportUnindexedCriteria(boolean reportUnindexedCriteria) {
+        this.reportUnindexedCriteria = reportUnindexedCriteria;
+    }
+
+    public Integer getCursorFetchSize() {
+        return cursorFetchSize;
+    }
+
+    public void setCursorFetchSize(Integer cursorFetchSize) {
+        this.cursorFetchSize = cursorFetchSize;
+    }
+
+    public String getCursorResultSetType() {
+        return cursorResultSetType;
+    }
+
+    public void setCursorResultSetType(String cursorResultSetType) {
+        this.cursorResultSetType = cursorResultSetType;
+    }
+
+    public Map<String, TableProperties> getTables() {
+        return tables;
+    }
+
+    public void setTables(Map<String, TableProperties> tables) {
+        this.tables = tables;
+    }
+
+    public String getUpsertDialect() {
+        return upsertDialect;
+    }
+
+    public void setUpsertDialect(String upsertDialect) {
+        this.upsertDialect = upsertDialect;
+    }
+
+    public Integer getXmlGenType() {
+        return xmlGenType;
+    }
+
+    public void setXmlGenType(Integer xmlGenType) {
+        this.xmlGenType = xmlGenType;
+    }
+
     public String getDriver() {
         return driver;
     }
@@ -122,4 +358,100 @@ public class ConfigProperties {
     public void setMapperXmlGenAbsPath(String mapperXmlGenAbsPath) {
         this.mapperXmlGenAbsPath = mapperXmlGenAbsPath;
     }
+
+    public boolean isIncremental() {
+        return incremental;
+    }
+
+    public void setIncremental(boolean incremental) {
+        this.incremental = incremental;
+    }
+
+    public boolean isReproducible() {
+        return reproducible;
+    }
+
+    public void setReproducible(boolean reproducible) {
+        this.reproducible = reproducible;
+    }
+
+    public boolean isSharedCriteria() {
+        return sharedCriteria;
+    }
+
+    public void setSharedCriteria(boolean sharedCriteria) {
+        this.sharedCriteria = sharedCriteria;
+    }
+
+    public boolean isStreaming() {
+        return streaming;
+    }
+
+    public void setStreaming(boolean streaming) {
+        this.streaming = streaming;
+    }
+
+    public Integer getStreamBufferSize() {
+        return streamBufferSize;
+    }
+
+    public void setStreamBufferSize(Integer streamBufferSize) {
+        this.streamBufferSize = streamBufferSize;
+    }
+
+    public Integer getGenParallelism() {
+        return genParallelism;
+    }
+
+    public void setGenParallelism(Integer genParallelism) {
+        this.genParallelism = genParallelism;
+    }
+
+    public String getDdlScriptPath() {
+        return ddlScriptPath;
+    }
+
+    public void setDdlScriptPath(String ddlScriptPath) {
+        this.ddlScriptPath = ddlScriptPath;
+    }
+
+    public String getSchemaSnapshotPath() {
+        return schemaSnapshotPath;
+    }
+
+    public void setSchemaSnapshotPath(String schemaSnapshotPath) {
+        this.schemaSnapshotPath = schemaSnapshotPath;
+    }
+
+    public GenManifest getManifest() {
+        return manifest;
+    }
+
+    public void setManifest(GenManifest manifest) {
+        this.manifest = manifest;
+    }
+
+    public GenMetrics getMetrics() {
+        return metrics;
+    }
+
+    public void setMetrics(GenMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    public ForkJoinPool getGenPool() {
+        return genPool;
+    }
+
+    public void setGenPool(ForkJoinPool genPool) {
+        this.genPool = genPool;
+    }
+
+    public GenFileWriter getFileWriter() {
+        return fileWriter;
+    }
+
+    public void setFileWriter(GenFileWriter fileWriter) {
+        this.fileWriter = fileWriter;
+    }
 }
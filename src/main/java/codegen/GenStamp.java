@@ -0,0 +1,57 @@
+package codegen;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Objects;
+import codegen.gen.GenManifest;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+
+/**
+ * 生成标记：配置文件、插件版本、表结构指纹均未变化且清单中记录的生成文件都存在时可跳过生成
+ *
+ * @date: 2026/10/17
+ **/
+public class GenStamp {
+
+    public static final String STAMP_FILE = "codegen.stamp";
+
+    private final Path stampPath;
+
+    private final String value;
+
+    private GenStamp(Path stampPath, String value) {
+        this.stampPath = stampPath;
+        this.value = value;
+    }
+
+    /**
+     * @return 表结构指纹为null时无法判断，返回null
+     */
+    public static GenStamp of(String baseDir, String configFilePath, String pluginVersion, String schemaFingerprint)
+            throws IOException {
+        if (Objects.isNull(schemaFingerprint)) {
+            return null;
+        }
+        Hasher hasher = Hashing.sha256().newHasher();
+        hasher.putBytes(Files.readAllBytes(Paths.get(configFilePath)));
+        hasher.putString("|" + pluginVersion + "|" + schemaFingerprint, StandardCharsets.UTF_8);
+        return new GenStamp(Paths.get(baseDir, "target", STAMP_FILE), hasher.hash().toString());
+    }
+
+    public boolean isUpToDate(GenManifest manifest) throws IOException {
+        if (!Files.exists(stampPath)) {
+            return false;
+        }
+        String previous = new String(Files.readAllBytes(stampPath), StandardCharsets.UTF_8).trim();
+        return value.equals(previous) && manifest.outputsExist();
+    }
+
+    public void save() throws IOException {
+        Files.createDirectories(stampPath.getParent());
+        Files.write(stampPath, value.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -2,10 +2,21 @@ package codegen;
 
 import java.io.IOException;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
 import java.util.Objects;
 import java.util.ServiceLoader;
 import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.maven.plugin.AbstractMojo;
 import org.apache.maven.plugin.MojoExecutionException;
@@ -14,6 +25,10 @@ import org.apache.maven.plugins.annotations.LifecyclePhase;
 import org.apache.maven.plugins.annotations.Mojo;
 import org.apache.maven.plugins.annotations.Parameter;
 import org.apache.maven.project.MavenProject;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import codegen.gen.GenExecutor;
+import codegen.gen.GenManifest;
+import codegen.gen.GenMetrics;
 import codegen.gen.java.CodeGenerator;
 import codegen.gen.xml.XMLGenerator;
 import codegen.table.Table;
@@ -39,6 +54,14 @@ public class SQLTableGenMojo extends AbstractMojo {
     @Parameter(property = "absoluteFilePath", required = true, readonly = true)
     private String absoluteFilePath;
 
+    // 配置文件、插件版本、表结构均未变化且上次生成的文件都在时跳过生成，默认关闭；
+    // 表结构指纹只支持MySQL及DDL/快照文件，其余数据库总是全量生成
+    @Parameter(property = "skipIfUpToDate", defaultValue = "false")
+    private boolean skipIfUpToDate;
+
+    @Parameter(defaultValue = "${plugin.version}", readonly = true)
+    private String pluginVersion;
+
 
     @Override
     public void execute() throws MojoExecutionException, MojoFailureException {
@@ -54,6 +77,7 @@ public class SQLTableGenMojo extends AbstractMojo {
     }
 
     public void doExecute(String baseAbsoluteDir,String filePath) throws MojoExecutionException {
+        long executeStart = System.nanoTime();
         ConfigProperties configProperties = null;
         try {
             configProperties = parseConfigFile(filePath);
@@ -61,25 +85,215 @@ public class SQLTableGenMojo extends AbstractMojo {
         } catch (IOException | MojoExecutionException e) {
             throw new MojoExecutionException("Failed to generate code: "+e);
         }
+        GenMetrics metrics = configProperties.getMetrics();
+        metrics.addPhase("parse", System.nanoTime() - executeStart);
+
+        ForkJoinPool genPool = GenExecutor.newPool(configProperties);
+        List<ConfigProperties> datasources = configProperties.datasourceList();
+        for (ConfigProperties datasource : datasources) {
+            datasource.setBaseDir(baseAbsoluteDir);
+            datasource.setMetrics(metrics);
+            datasource.setFileWriter(configProperties.getFileWriter());
+            datasource.setGenPool(genPool);
+        }
+        try {
+            doExecute(configProperties, datasources, baseAbsoluteDir, filePath, executeStart);
+        } finally {
+            if (Objects.nonNull(genPool)) {
+                genPool.shutdown();
+            }
+        }
+    }
+
+    private void doExecute(ConfigProperties configProperties, List<ConfigProperties> datasources,
+            String baseAbsoluteDir, String filePath, long executeStart) throws MojoExecutionException {
+        GenMetrics metrics = configProperties.getMetrics();
+        // skipIfUpToDate依据清单中记录的生成文件判断上次的输出是否完整，开启时所有数据源都记录清单
+        GenManifest manifest = null;
+        if (skipIfUpToDate || datasources.stream().anyMatch(ConfigProperties::isIncremental)) {
+            try {
+                manifest = GenManifest.load(baseAbsoluteDir);
+            } catch (IOException e) {
+                throw new MojoExecutionException("Failed to generate code: " + e);
+            }
+        }
+
+        GenStamp stamp = null;
+        if (skipIfUpToDate) {
+            long start = System.nanoTime();
+            stamp = stamp(datasources, filePath);
+            metrics.addPhase("fingerprint", System.nanoTime() - start);
+            if (Objects.nonNull(stamp) && isUpToDate(stamp, manifest)) {
+                getLog().info("codegen is up to date, skipped!");
+                return;
+            }
+        }
+
+        if (Objects.nonNull(manifest)) {
+            for (ConfigProperties datasource : datasources) {
+                if (skipIfUpToDate || datasource.isIncremental()) {
+                    datasource.setManifest(manifest);
+                }
+            }
+        }
+
+        int count;
+        if (datasources.size() == 1) {
+            count = generate(datasources.get(0));
+        } else {
+            count = generateConcurrently(datasources);
+        }
+        if (count == 0) {
+            // 仍然清理上次生成的文件并保存清单，否则已删除/排除的表的文件会一直保留
+            getLog().warn("No tables to generate");
+        }
+
+        try {
+            int swept = configProperties.getFileWriter().sweep();
+            if (swept > 0) {
+                getLog().info("codegen: " + swept + " stale file(s) deleted");
+            }
+        } catch (IOException e) {
+            throw new MojoExecutionException("Failed to generate code: " + e);
+        }
+
+        if (Objects.nonNull(manifest)) {
+            try {
+                int deleted = manifest.deleteOrphans();
+                manifest.save();
+                getLog().info("codegen incremental: " + manifest.getGenerated() + " file(s) generated, "
+                        + manifest.getUnchanged() + " unchanged, " + deleted + " orphan(s) deleted");
+            } catch (IOException e) {
+                throw new MojoExecutionException("Failed to generate code: " + e);
+            }
+        }
+
+        if (Objects.nonNull(stamp)) {
+            try {
+                stamp.save();
+            } catch (IOException e) {
+                getLog().warn("Failed to save codegen stamp: " + e);
+            }
+        }
+
+        metrics.addPhase("total", System.nanoTime() - executeStart);
+        report(baseAbsoluteDir, metrics);
+    }
+
+    /**
+     * 生成单个数据源
+     *
+     * @return 生成的表数量
+     */
+    private int generate(ConfigProperties configProperties) throws MojoExecutionException {
+        GenMetrics metrics = configProperties.getMetrics();
+        if (configProperties.isStreaming()) {
+            long start = System.nanoTime();
+            TablePipeline pipeline = new TablePipeline(configProperties.getStreamBufferSize());
+            int count = pipeline.run(tableFetcher(configProperties), configProperties,
+                    Arrays.asList(codeGenerator(), xmlGenerator(configProperties)));
+            metrics.addPhase("pipeline", System.nanoTime() - start);
+            return count;
+        }
+
         Set<Table> tables = null;
+        long start = System.nanoTime();
         try {
             tables = fetchTableInfo(configProperties);
         } catch (Exception e) {
             throw new MojoExecutionException("Failed to generate code: db error "+e);
         }
+        metrics.addPhase("fetch", System.nanoTime() - start);
         if(Objects.isNull(tables) || tables.size()==0){
-            getLog().warn("No tables to generate");
-            return;
+            // 没有表时只执行prepare(与流式生成相同)，生成结束后照常清理上次生成的文件
+            codeGenerator().prepare(configProperties);
+            xmlGenerator(configProperties).prepare(configProperties);
+            return 0;
+        }
+        tables.forEach(metrics::countTable);
+        if (configProperties.isReproducible()) {
+            Set<Table> sortedTables = new TreeSet<>(Comparator.comparing(Table::getName));
+            sortedTables.addAll(tables);
+            tables = sortedTables;
         }
         CodeGenerator codeGenerator = codeGenerator();
         codeGenerator.generate(configProperties,tables);
 
-        XMLGenerator xmlGenerator = xmlGenerator();
+        XMLGenerator xmlGenerator = xmlGenerator(configProperties);
         xmlGenerator.generate(configProperties,tables);
+        return tables.size();
+    }
+
+    /**
+     * 多数据源并发生成，每个数据源使用各自的连接和生成器实例，共用增量清单和统计
+     */
+    private int generateConcurrently(List<ConfigProperties> datasources) throws MojoExecutionException {
+        ExecutorService executor = Executors.newFixedThreadPool(datasources.size(),
+                new ThreadFactoryBuilder().setNameFormat("codegen-datasource-%d").setDaemon(true).build());
+        try {
+            List<Future<Integer>> futures = new ArrayList<>();
+            for (ConfigProperties datasource : datasources) {
+                futures.add(executor.submit(() -> generate(datasource)));
+            }
+            int count = 0;
+            for (int i = 0; i < futures.size(); i++) {
+                String name = datasources.get(i).getName();
+                try {
+                    int tables = futures.get(i).get();
+                    getLog().info("codegen datasource " + name + ": " + tables + " table(s)");
+                    count += tables;
+                } catch (ExecutionException e) {
+                    Throwable cause = e.getCause();
+                    throw new MojoExecutionException("Failed to generate code for datasource " + name + ": "
+                            + (cause instanceof MojoExecutionException ? cause.getMessage() : cause), cause);
+                }
+            }
+            return count;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MojoExecutionException("Failed to generate code: interrupted");
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void report(String baseAbsoluteDir, GenMetrics metrics) {
+        metrics.summary().forEach(getLog()::info);
+        metrics.warnings().forEach(getLog()::warn);
+        Path reportPath = Paths.get(baseAbsoluteDir, "target", GenMetrics.REPORT_FILE);
+        try {
+            metrics.writeReport(reportPath);
+        } catch (IOException e) {
+            getLog().warn("Failed to write codegen metrics report: " + e);
+        }
+    }
 
+    private GenStamp stamp(List<ConfigProperties> datasources, String filePath) {
+        try {
+            List<String> fingerprints = new ArrayList<>();
+            for (ConfigProperties datasource : datasources) {
+                String fingerprint = tableFetcher(datasource).fingerprint(datasource);
+                if (Objects.isNull(fingerprint)) {
+                    return null;
+                }
+                fingerprints.add(fingerprint);
+            }
+            return GenStamp.of(datasources.get(0).getBaseDir(), filePath, pluginVersion, String.join(",", fingerprints));
+        } catch (Exception e) {
+            getLog().warn("Failed to compute schema fingerprint, up-to-date check skipped: " + e);
+            return null;
+        }
     }
 
-    private CodeGenerator codeGenerator() throws MojoExecutionException {
+    private boolean isUpToDate(GenStamp stamp, GenManifest manifest) {
+        try {
+            return stamp.isUpToDate(manifest);
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    static CodeGenerator codeGenerator() throws MojoExecutionException {
         ServiceLoader<CodeGenerator> generators = ServiceLoader.load(CodeGenerator.class);
         for (CodeGenerator generator : generators) {
             return generator;
@@ -87,19 +301,25 @@ public class SQLTableGenMojo extends AbstractMojo {
         throw new MojoExecutionException("Failed to generate code: unsupported codegenerator");
     }
 
-    public XMLGenerator xmlGenerator() throws MojoExecutionException {
+    public static XMLGenerator xmlGenerator(ConfigProperties configProperties) throws MojoExecutionException {
         ServiceLoader<XMLGenerator> xmlGenerators = ServiceLoader.load(XMLGenerator.class);
         for (XMLGenerator xmlGenerator : xmlGenerators) {
-            return xmlGenerator;
+            if (xmlGenerator.supports(configProperties)) {
+                return xmlGenerator;
+            }
         }
         throw new MojoExecutionException("Failed to generate code: unsupported xmlgenerator");
     }
 
-    private Set<Table> fetchTableInfo(ConfigProperties configProperties) throws Exception {
+    private static Set<Table> fetchTableInfo(ConfigProperties configProperties) throws Exception {
+        return tableFetcher(configProperties).fetch(configProperties);
+    }
+
+    static TableFetcher tableFetcher(ConfigProperties configProperties) throws MojoExecutionException {
         ServiceLoader<TableFetcher> fetchers = ServiceLoader.load(TableFetcher.class);
         for (TableFetcher fetcher : fetchers) {
             if(fetcher.supports(configProperties)){
-                return fetcher.fetch(configProperties);
+                return fetcher;
             }
         }
         throw new MojoExecutionException("Failed to generate code: unsupported fetcher");
@@ -107,7 +327,7 @@ public class SQLTableGenMojo extends AbstractMojo {
 
 
 
-    private ConfigProperties parseConfigFile(String configFilePath) throws MojoExecutionException, IOException {
+    static ConfigProperties parseConfigFile(String configFilePath) throws MojoExecutionException, IOException {
         ServiceLoader<ConfigFileParser> parsers = ServiceLoader.load(ConfigFileParser.class);
         for (ConfigFileParser parser : parsers) {
             if (parser.supports(configFilePath)) {
@@ -137,6 +357,14 @@ public class SQLTableGenMojo extends AbstractMojo {
         this.skip = skip;
     }
 
+    public boolean isSkipIfUpToDate() {
+        return skipIfUpToDate;
+    }
+
+    public void setSkipIfUpToDate(boolean skipIfUpToDate) {
+        this.skipIfUpToDate = skipIfUpToDate;
+    }
+
     public String getAbsoluteFilePath() {
         return absoluteFilePath;
     }
@@ -0,0 +1,158 @@
+package codegen;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.project.MavenProject;
+import codegen.gen.GenExecutor;
+import codegen.gen.GenManifest;
+
+/**
+ * 常驻进程，轮询表结构变化，只重新生成结构变化的表(实体、Example、Mapper、xml)，删除已删除的表对应的文件。
+ * 始终以增量模式写文件，Ctrl+C结束
+ *
+ * @date: 2026/10/17
+ **/
+@Mojo(name = "watch")
+public class SQLTableWatchMojo extends AbstractMojo {
+
+    @Parameter(defaultValue = "${project}", required = true, readonly = true)
+    private MavenProject project;
+
+    // 配置文件绝对路径，同codegen
+    @Parameter(property = "absoluteFilePath", required = true, readonly = true)
+    private String absoluteFilePath;
+
+    // 轮询间隔，毫秒
+    @Parameter(property = "pollInterval", defaultValue = "1000")
+    private long pollInterval;
+
+    @Override
+    public void execute() throws MojoExecutionException, MojoFailureException {
+        if (StringUtils.isBlank(absoluteFilePath) || !Files.exists(Paths.get(absoluteFilePath))) {
+            throw new MojoExecutionException("Failed to generate code: config file does not exist");
+        }
+        doWatch(project.getBasedir().getAbsolutePath(), absoluteFilePath);
+    }
+
+    public void doWatch(String baseAbsoluteDir, String filePath) throws MojoExecutionException {
+        ConfigProperties configProperties;
+        GenManifest manifest;
+        try {
+            configProperties = SQLTableGenMojo.parseConfigFile(filePath);
+            manifest = GenManifest.load(baseAbsoluteDir);
+        } catch (IOException e) {
+            throw new MojoExecutionException("Failed to generate code: " + e);
+        }
+
+        ForkJoinPool genPool = GenExecutor.newPool(configProperties);
+        try {
+            watch(configProperties, manifest, genPool, baseAbsoluteDir);
+        } finally {
+            if (Objects.nonNull(genPool)) {
+                genPool.shutdown();
+            }
+        }
+    }
+
+    private void watch(ConfigProperties configProperties, GenManifest manifest, ForkJoinPool genPool,
+            String baseAbsoluteDir) throws MojoExecutionException {
+        List<TableWatcher> watchers = new ArrayList<>();
+        int count = 0;
+        for (ConfigProperties datasource : configProperties.datasourceList()) {
+            datasource.setBaseDir(baseAbsoluteDir);
+            datasource.setIncremental(true);
+            datasource.setManifest(manifest);
+            datasource.setGenPool(genPool);
+            TableWatcher watcher = new TableWatcher(datasource, SQLTableGenMojo.tableFetcher(datasource),
+                    Arrays.asList(SQLTableGenMojo.codeGenerator(), SQLTableGenMojo.xmlGenerator(datasource)));
+            try {
+                count += watcher.init();
+            } catch (MojoExecutionException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new MojoExecutionException("Failed to generate code: db error " + e);
+            }
+            watchers.add(watcher);
+        }
+        try {
+            int deleted = manifest.deleteOrphans();
+            manifest.save();
+            getLog().info("codegen watch: " + count + " table(s) generated, " + manifest.getUnchanged()
+                    + " file(s) unchanged, " + deleted + " orphan(s) deleted");
+        } catch (IOException e) {
+            throw new MojoExecutionException("Failed to generate code: " + e);
+        }
+
+        getLog().info("codegen watch: polling every " + pollInterval + " ms, press Ctrl+C to stop");
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                Thread.sleep(pollInterval);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            poll(watchers, manifest);
+        }
+    }
+
+    private void poll(List<TableWatcher> watchers, GenManifest manifest) {
+        long start = System.nanoTime();
+        List<String> affected = new ArrayList<>();
+        for (TableWatcher watcher : watchers) {
+            try {
+                Set<String> tables = watcher.poll();
+                affected.addAll(tables);
+            } catch (Exception e) {
+                // 数据库暂时不可用等，下次轮询重试
+                getLog().warn("codegen watch: poll failed: " + e);
+            }
+        }
+        if (affected.isEmpty()) {
+            return;
+        }
+        try {
+            manifest.save();
+        } catch (IOException e) {
+            getLog().warn("Failed to save codegen manifest: " + e);
+        }
+        getLog().info("codegen watch: regenerated " + affected + " in "
+                + (System.nanoTime() - start) / 1_000_000 + " ms");
+    }
+
+    public MavenProject getProject() {
+        return project;
+    }
+
+    public void setProject(MavenProject project) {
+        this.project = project;
+    }
+
+    public String getAbsoluteFilePath() {
+        return absoluteFilePath;
+    }
+
+    public void setAbsoluteFilePath(String absoluteFilePath) {
+        this.absoluteFilePath = absoluteFilePath;
+    }
+
+    public long getPollInterval() {
+        return pollInterval;
+    }
+
+    public void setPollInterval(long pollInterval) {
+        this.pollInterval = pollInterval;
+    }
+}
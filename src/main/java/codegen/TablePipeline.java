@@ -0,0 +1,89 @@
+package codegen;
+
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicReference;
+import org.apache.maven.plugin.MojoExecutionException;
+import codegen.gen.Generator;
+import codegen.table.Table;
+import codegen.table.TableFetcher;
+
+/**
+ * 流式生成：读取表结构与生成/写文件并行进行，每个表读取完即生成并写入，
+ * 有界队列提供背压，内存占用与队列长度相关而与表数量无关
+ *
+ * @date: 2026/10/17
+ **/
+public class TablePipeline {
+
+    private static final Table END = new Table();
+
+    private final int bufferSize;
+
+    private volatile boolean cancelled;
+
+    public TablePipeline(int bufferSize) {
+        this.bufferSize = Math.max(1, bufferSize);
+    }
+
+    /**
+     * @return 生成的表数量
+     */
+    public int run(TableFetcher fetcher, ConfigProperties configProperties, List<? extends Generator> generators)
+            throws MojoExecutionException {
+        BlockingQueue<Table> queue = new ArrayBlockingQueue<>(bufferSize);
+        AtomicReference<Exception> fetchError = new AtomicReference<>();
+
+        Thread producer = new Thread(() -> {
+            try {
+                fetcher.fetch(configProperties, queue::put);
+            } catch (Exception e) {
+                fetchError.set(e);
+            } finally {
+                try {
+                    if (!cancelled) {
+                        queue.put(END);
+                    }
+                } catch (InterruptedException ignored) {
+                    // 已取消，消费者不再读取
+                }
+            }
+        }, "codegen-fetch");
+        producer.setDaemon(true);
+        producer.start();
+
+        int count = 0;
+        try {
+            for (Generator generator : generators) {
+                generator.prepare(configProperties);
+            }
+            Table table;
+            while ((table = queue.take()) != END) {
+                configProperties.getMetrics().countTable(table);
+                for (Generator generator : generators) {
+                    generator.generate(configProperties, table);
+                }
+                count++;
+            }
+            producer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            cancel(producer);
+            throw new MojoExecutionException("Failed to generate code: interrupted");
+        } catch (MojoExecutionException | RuntimeException e) {
+            cancel(producer);
+            throw e;
+        }
+
+        if (fetchError.get() != null) {
+            throw new MojoExecutionException("Failed to generate code: db error " + fetchError.get());
+        }
+        return count;
+    }
+
+    private void cancel(Thread producer) {
+        cancelled = true;
+        producer.interrupt();
+    }
+}
@@ -0,0 +1,31 @@
+package codegen;
+
+/**
+ * 按表的配置(yaml中tables下以表名为key)，未配置的项沿用ConfigProperties中的同名全局配置
+ *
+ * @date: 2026/10/17
+ **/
+public class TableProperties {
+
+    // selectXxxsCursor的fetchSize，为null时不设置
+    private Integer cursorFetchSize;
+
+    // selectXxxsCursor的resultSetType
+    private String cursorResultSetType;
+
+    public Integer getCursorFetchSize() {
+        return cursorFetchSize;
+    }
+
+    public void setCursorFetchSize(Integer cursorFetchSize) {
+        this.cursorFetchSize = cursorFetchSize;
+    }
+
+    public String getCursorResultSetType() {
+        return cursorResultSetType;
+    }
+
+    public void setCursorResultSetType(String cursorResultSetType) {
+        this.cursorResultSetType = cursorResultSetType;
+    }
+}
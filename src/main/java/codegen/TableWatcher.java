@@ -0,0 +1,99 @@
+package codegen;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import org.apache.maven.plugin.MojoExecutionException;
+import codegen.gen.Generator;
+import codegen.table.Table;
+import codegen.table.TableFetcher;
+
+/**
+ * watch模式下的单个数据源：在内存中保留上次的表结构及每个表的指纹，
+ * 轮询时只重新读取、生成指纹变化的表，删除已删除的表对应的文件
+ *
+ * @date: 2026/10/17
+ **/
+public class TableWatcher {
+
+    private final ConfigProperties configProperties;
+
+    private final TableFetcher fetcher;
+
+    private final List<? extends Generator> generators;
+
+    // 表名:表结构
+    private final Map<String, Table> tables = new HashMap<>();
+
+    // 表名:指纹
+    private Map<String, String> fingerprints = new HashMap<>();
+
+    public TableWatcher(ConfigProperties configProperties, TableFetcher fetcher, List<? extends Generator> generators) {
+        this.configProperties = configProperties;
+        this.fetcher = fetcher;
+        this.generators = generators;
+    }
+
+    /**
+     * 全量读取并生成一次
+     *
+     * @return 生成的表数量
+     */
+    public int init() throws Exception {
+        for (Generator generator : generators) {
+            generator.prepare(configProperties);
+        }
+        // 先取指纹再读取，读取期间发生的变更会在下次轮询时发现
+        fingerprints = fetcher.tableFingerprints(configProperties);
+        for (Table table : fetcher.fetch(configProperties)) {
+            generate(table);
+        }
+        return tables.size();
+    }
+
+    /**
+     * @return 本次重新生成或删除的表名，无变化时为空
+     */
+    public Set<String> poll() throws Exception {
+        Map<String, String> current = fetcher.tableFingerprints(configProperties);
+
+        Set<String> changed = new TreeSet<>();
+        current.forEach((name, fingerprint) -> {
+            if (!Objects.equals(fingerprint, fingerprints.get(name))) {
+                changed.add(name);
+            }
+        });
+        Set<String> dropped = new TreeSet<>(fingerprints.keySet());
+        dropped.removeAll(current.keySet());
+        if (changed.isEmpty() && dropped.isEmpty()) {
+            return changed;
+        }
+
+        for (String name : dropped) {
+            Table table = tables.remove(name);
+            if (Objects.nonNull(table)) {
+                for (Generator generator : generators) {
+                    generator.remove(configProperties, table);
+                }
+            }
+        }
+        for (Table table : fetcher.fetch(configProperties, changed)) {
+            generate(table);
+        }
+        fingerprints = current;
+
+        Set<String> affected = new TreeSet<>(changed);
+        affected.addAll(dropped);
+        return affected;
+    }
+
+    private void generate(Table table) throws MojoExecutionException {
+        tables.put(table.getName(), table);
+        for (Generator generator : generators) {
+            generator.generate(configProperties, table);
+        }
+    }
+}
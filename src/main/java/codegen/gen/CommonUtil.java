@@ -1,9 +1,17 @@
 package codegen.gen;
 
 import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.Objects;
 import org.apache.maven.plugin.MojoExecutionException;
 import com.google.common.base.CaseFormat;
+import codegen.ConfigProperties;
+import codegen.table.Table;
+import codegen.table.TableColumn;
 
 /**
  * @author: baotingyu
@@ -49,25 +57,59 @@ public class CommonUtil {
         return osName.toLowerCase().contains("win");
     }
 
-    public static void prepareDir(String fileDir) throws MojoExecutionException {
+    public static void ensureDir(String fileDir) throws MojoExecutionException {
         try {
-            File file = new File(fileDir);
-
-            if (file.exists() && file.isDirectory()) {
-                File[] files = file.listFiles();
-                if (files != null) {
-                    for (File f : files) {
-                        f.delete();
-                    }
-                }
-            }
-            file.delete();
-            file.mkdirs();
-        } catch (Exception e) {
+            Files.createDirectories(new File(fileDir).toPath());
+        } catch (IOException e) {
             throw new MojoExecutionException("Failed to generate code: " + e.getMessage());
         }
     }
 
+    /**
+     * 增量模式下交给{@link GenManifest}判断是否需要重写，否则由{@link GenFileWriter}比较文件内容，内容相同时不写
+     */
+    public static void persist(ConfigProperties configProperties, Path path, byte[] content) throws IOException {
+        GenManifest manifest = configProperties.getManifest();
+        GenFileWriter writer = configProperties.getFileWriter();
+        boolean written = Objects.nonNull(manifest) ? manifest.write(path, content, writer) : writer.write(path, content);
+        configProperties.getMetrics().countFile(content.length, written);
+    }
+
+    /**
+     * 删除生成的文件，增量模式下同时从{@link GenManifest}中移除
+     */
+    public static void delete(ConfigProperties configProperties, Path path) throws IOException {
+        GenManifest manifest = configProperties.getManifest();
+        if (Objects.nonNull(manifest)) {
+            manifest.delete(path, configProperties.getFileWriter());
+            return;
+        }
+        configProperties.getFileWriter().delete(path);
+    }
+
+    /**
+     * 生成文件中的标记，可复现模式下使用表结构hash代替当前时间，表结构不变时生成的文件内容不变
+     */
+    public static String genStamp(ConfigProperties configProperties, Table table) {
+        if (!configProperties.isReproducible()) {
+            return LocalDateTime.now().toString();
+        }
+        return "schema:" + table.fingerprint().substring(0, 16);
+    }
+
+    /**
+     * 索引列查询方法名：单列唯一索引selectXxxByCol返回单行，普通索引及联合唯一索引的列selectXxxsByCol返回列表
+     */
+    public static String indexFinderName(Table table, TableColumn column) {
+        return "select" + mapUnderScoreToUpperCamelCase(table.getName()) + (column.isSingleUniqIndexed() ? "" : "s")
+                + "By" + mapUnderScoreToUpperCamelCase(column.getColumnName());
+    }
+
+    public static boolean isPrimaryKey(Table table, TableColumn column) {
+        return Objects.nonNull(table.getPrimaryKeyColumn())
+                && Objects.equals(table.getPrimaryKeyColumn().getColumnName(), column.getColumnName());
+    }
+
     public static String getterMethodNameFromColumnName(String columnName) {
         String s = CaseFormat.LOWER_UNDERSCORE.to(CaseFormat.UPPER_CAMEL, columnName);
         return "get" + s;
@@ -0,0 +1,77 @@
+package codegen.gen;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import codegen.ConfigProperties;
+
+/**
+ * 按表并行生成/写文件。每个表的产物互不依赖且写入不同文件，并行不影响生成结果
+ *
+ * @date: 2026/10/17
+ **/
+public class GenExecutor {
+
+    public static int parallelism(ConfigProperties configProperties) {
+        Integer genParallelism = configProperties.getGenParallelism();
+        if (genParallelism == null || genParallelism <= 0) {
+            return Runtime.getRuntime().availableProcessors();
+        }
+        return genParallelism;
+    }
+
+    /**
+     * 一次执行共用的线程池，由调用方(Mojo)在执行结束后关闭；并行度为1时返回null，各阶段串行
+     */
+    public static ForkJoinPool newPool(ConfigProperties configProperties) {
+        int parallelism = parallelism(configProperties);
+        return parallelism <= 1 ? null : new ForkJoinPool(parallelism);
+    }
+
+    public static <T> void forEach(ConfigProperties configProperties, Collection<T> items, Consumer<T> action) {
+        int parallelism = Math.min(parallelism(configProperties), items.size());
+        if (parallelism <= 1) {
+            items.forEach(action);
+            return;
+        }
+        ForkJoinPool pool = configProperties.getGenPool();
+        if (Objects.isNull(pool)) {
+            // 未经Mojo执行(没有共用线程池)时临时创建
+            ForkJoinPool temporary = new ForkJoinPool(parallelism);
+            try {
+                forEach(temporary, items, action);
+            } finally {
+                temporary.shutdown();
+            }
+            return;
+        }
+        forEach(pool, items, action);
+    }
+
+    private static <T> void forEach(ForkJoinPool pool, Collection<T> items, Consumer<T> action) {
+        try {
+            pool.submit(() -> items.parallelStream().forEach(action)).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new RuntimeException(e.getCause());
+        }
+    }
+
+    public static <T, R> Map<String, R> map(ConfigProperties configProperties, Collection<T> items,
+            Function<T, Map<String, R>> mapper) {
+        Map<String, R> result = new ConcurrentHashMap<>();
+        forEach(configProperties, items, item -> result.putAll(mapper.apply(item)));
+        return new HashMap<>(result);
+    }
+}
@@ -0,0 +1,109 @@
+package codegen.gen;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 所有生成器共用的写文件组件：内容与已有文件相同时不写(不改变mtime，不触发下游重新编译/IDE重建索引)，
+ * 不同时一次channel写入。非增量模式下不预先清空生成目录，生成结束后删除目录中本次未生成的文件，
+ * 最终结果与先清空再生成相同
+ *
+ * @date: 2026/10/17
+ **/
+public class GenFileWriter {
+
+    // 不小于该大小的已有文件用内存映射比较
+    static final int MAP_THRESHOLD = 64 * 1024;
+
+    // 本次生成的文件
+    private final Set<Path> generated = ConcurrentHashMap.newKeySet();
+
+    // 生成结束后需要清理的目录
+    private final Set<Path> sweepDirs = ConcurrentHashMap.newKeySet();
+
+    /**
+     * @return true:文件已写入; false:内容未变化，跳过
+     */
+    public boolean write(Path path, byte[] content) throws IOException {
+        markGenerated(path);
+        if (sameContent(path, content)) {
+            return false;
+        }
+        Files.createDirectories(path.getParent());
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.wrap(content);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 记录为本次生成但不写入(如清单判断未变化的文件)，生成结束后不会被清理
+     */
+    public void markGenerated(Path path) {
+        generated.add(key(path));
+    }
+
+    public boolean delete(Path path) throws IOException {
+        generated.remove(key(path));
+        return Files.deleteIfExists(path);
+    }
+
+    /**
+     * 生成结束后删除dir中本次未生成的文件，代替生成前清空目录
+     */
+    public void sweepAfterRun(String dir) {
+        sweepDirs.add(key(Paths.get(dir)));
+    }
+
+    /**
+     * @return 删除的文件数
+     */
+    public int sweep() throws IOException {
+        int deleted = 0;
+        for (Path dir : sweepDirs) {
+            File[] files = dir.toFile().listFiles();
+            if (files == null) {
+                continue;
+            }
+            for (File file : files) {
+                if (file.isFile() && !generated.contains(key(file.toPath())) && file.delete()) {
+                    deleted++;
+                }
+            }
+        }
+        sweepDirs.clear();
+        return deleted;
+    }
+
+    public static boolean sameContent(Path path, byte[] content) throws IOException {
+        if (!Files.isRegularFile(path) || Files.size(path) != content.length) {
+            return false;
+        }
+        // windows下映射未释放前无法截断/重写文件，不使用内存映射
+        if (content.length < MAP_THRESHOLD || CommonUtil.isWin()) {
+            return Arrays.equals(Files.readAllBytes(path), content);
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, content.length);
+            return mapped.equals(ByteBuffer.wrap(content));
+        }
+    }
+
+    private static Path key(Path path) {
+        return path.toAbsolutePath().normalize();
+    }
+}
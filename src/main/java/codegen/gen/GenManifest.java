@@ -0,0 +1,139 @@
+package codegen.gen;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import com.google.common.hash.Hashing;
+
+/**
+ * 增量生成清单：记录每个生成文件的内容hash，只重写内容变化的文件，并删除本次未再生成的文件（如已删除的表）
+ *
+ * @date: 2026/10/17
+ **/
+public class GenManifest {
+
+    public static final String MANIFEST_FILE = "codegen-manifest.properties";
+
+    private final Path manifestPath;
+
+    // 上次生成的 文件绝对路径:hash
+    private final Map<String, String> previous;
+
+    // 本次生成的 文件绝对路径:hash
+    private final Map<String, String> current = new ConcurrentHashMap<>();
+
+    private final AtomicInteger unchanged = new AtomicInteger();
+
+    private GenManifest(Path manifestPath, Map<String, String> previous) {
+        this.manifestPath = manifestPath;
+        this.previous = previous;
+    }
+
+    public static GenManifest load(String baseDir) throws IOException {
+        Path manifestPath = Paths.get(baseDir, "target", MANIFEST_FILE);
+        Map<String, String> previous = new TreeMap<>();
+        if (Files.exists(manifestPath)) {
+            try (BufferedReader reader = Files.newBufferedReader(manifestPath, StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    int i = line.lastIndexOf('=');
+                    if (i > 0) {
+                        previous.put(line.substring(0, i), line.substring(i + 1));
+                    }
+                }
+            }
+        }
+        return new GenManifest(manifestPath, previous);
+    }
+
+    /**
+     * 清单中的hash相同且文件存在时直接跳过，否则交给writer比较文件内容后决定是否写入
+     *
+     * @return true:文件已写入; false:内容未变化，跳过
+     */
+    public boolean write(Path path, byte[] content, GenFileWriter writer) throws IOException {
+        String key = path.toAbsolutePath().normalize().toString();
+        String hash = hash(content);
+        current.put(key, hash);
+        // 跳过时也要记为本次生成，否则与非增量数据源共用目录时会被writer的清理删除
+        writer.markGenerated(path);
+        if (Files.exists(path) && Objects.equals(hash, previous.get(key))) {
+            unchanged.incrementAndGet();
+            return false;
+        }
+        if (!writer.write(path, content)) {
+            unchanged.incrementAndGet();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * 删除生成的文件(如watch模式下已删除的表)，不再记录在清单中
+     */
+    public boolean delete(Path path, GenFileWriter writer) throws IOException {
+        current.remove(path.toAbsolutePath().normalize().toString());
+        return writer.delete(path);
+    }
+
+    /**
+     * 删除上次生成但本次未生成的文件
+     *
+     * @return 删除的文件数
+     */
+    public int deleteOrphans() throws IOException {
+        int deleted = 0;
+        for (String key : previous.keySet()) {
+            if (!current.containsKey(key) && Files.deleteIfExists(Paths.get(key))) {
+                deleted++;
+            }
+        }
+        return deleted;
+    }
+
+    /**
+     * 上次生成的文件是否都还存在，没有清单时视为不存在
+     */
+    public boolean outputsExist() {
+        if (previous.isEmpty()) {
+            return false;
+        }
+        for (String key : previous.keySet()) {
+            if (!Files.isRegularFile(Paths.get(key))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public void save() throws IOException {
+        Files.createDirectories(manifestPath.getParent());
+        try (BufferedWriter writer = Files.newBufferedWriter(manifestPath, StandardCharsets.UTF_8)) {
+            for (Map.Entry<String, String> entry : new TreeMap<>(current).entrySet()) {
+                writer.write(entry.getKey() + "=" + entry.getValue());
+                writer.newLine();
+            }
+        }
+    }
+
+    public int getUnchanged() {
+        return unchanged.get();
+    }
+
+    public int getGenerated() {
+        return current.size();
+    }
+
+    public static String hash(byte[] content) {
+        return Hashing.sha256().hashBytes(content).toString();
+    }
+}
@@ -0,0 +1,157 @@
+package codegen.gen;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import codegen.table.Table;
+
+/**
+ * 单次生成的各阶段耗时、每个表的耗时及文件统计，并行生成时线程安全
+ *
+ * @date: 2026/10/17
+ **/
+public class GenMetrics {
+
+    public static final String REPORT_FILE = "codegen-metrics.json";
+
+    private static final ObjectMapper jsonMapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    // 阶段:耗时(ns)，按首次记录的顺序输出
+    private final Map<String, LongAdder> phases = new ConcurrentHashMap<>();
+
+    private final List<String> phaseOrder = new ArrayList<>();
+
+    // 表名:(阶段:耗时(ns))
+    private final Map<String, Map<String, LongAdder>> tables = new ConcurrentHashMap<>();
+
+    private final LongAdder tableCount = new LongAdder();
+
+    private final LongAdder columnCount = new LongAdder();
+
+    private final LongAdder filesWritten = new LongAdder();
+
+    private final LongAdder filesUnchanged = new LongAdder();
+
+    private final LongAdder bytesWritten = new LongAdder();
+
+    // 表名:Example中有条件方法但没有索引的列，reportUnindexedCriteria开启时记录
+    private final Map<String, List<String>> unindexedCriteriaColumns = new ConcurrentHashMap<>();
+
+    public void addPhase(String phase, long nanos) {
+        phases.computeIfAbsent(phase, k -> {
+            synchronized (phaseOrder) {
+                phaseOrder.add(k);
+            }
+            return new LongAdder();
+        }).add(nanos);
+    }
+
+    public void addTable(String table, String phase, long nanos) {
+        tables.computeIfAbsent(table, k -> new ConcurrentHashMap<>())
+                .computeIfAbsent(phase, k -> new LongAdder())
+                .add(nanos);
+    }
+
+    public <R> R timeTable(Table table, String phase, Supplier<R> supplier) {
+        long start = System.nanoTime();
+        try {
+            return supplier.get();
+        } finally {
+            addTable(table.getName(), phase, System.nanoTime() - start);
+        }
+    }
+
+    public void countTable(Table table) {
+        tableCount.increment();
+        columnCount.add(table.getColumns().size());
+    }
+
+    public void countFile(long bytes, boolean written) {
+        if (written) {
+            filesWritten.increment();
+            bytesWritten.add(bytes);
+        } else {
+            filesUnchanged.increment();
+        }
+    }
+
+    public void addUnindexedCriteriaColumns(Table table, List<String> columns) {
+        if (!columns.isEmpty()) {
+            unindexedCriteriaColumns.put(table.getName(), columns);
+        }
+    }
+
+    /**
+     * 需要以warn输出的提示
+     */
+    public List<String> warnings() {
+        List<String> lines = new ArrayList<>();
+        new TreeMap<>(unindexedCriteriaColumns).forEach((table, columns) ->
+                lines.add("codegen: Example criteria on unindexed column(s) of " + table + " may cause full table scans: "
+                        + String.join(",", columns)));
+        return lines;
+    }
+
+    public List<String> summary() {
+        List<String> lines = new ArrayList<>();
+        lines.add("codegen: " + tableCount.sum() + " table(s), " + columnCount.sum() + " column(s), "
+                + filesWritten.sum() + " file(s) written (" + bytesWritten.sum() + " bytes), "
+                + filesUnchanged.sum() + " unchanged");
+        synchronized (phaseOrder) {
+            for (String phase : phaseOrder) {
+                lines.add("codegen phase " + phase + ": " + millis(phases.get(phase).sum()) + " ms");
+            }
+        }
+        return lines;
+    }
+
+    public void writeReport(Path reportPath) throws IOException {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("tables", tableCount.sum());
+        report.put("columns", columnCount.sum());
+        report.put("filesWritten", filesWritten.sum());
+        report.put("filesUnchanged", filesUnchanged.sum());
+        report.put("bytesWritten", bytesWritten.sum());
+
+        Map<String, Long> phaseMillis = new LinkedHashMap<>();
+        synchronized (phaseOrder) {
+            for (String phase : phaseOrder) {
+                phaseMillis.put(phase, millis(phases.get(phase).sum()));
+            }
+        }
+        report.put("phaseMillis", phaseMillis);
+
+        Map<String, Map<String, Long>> tableMicros = new TreeMap<>();
+        tables.forEach((table, phase2Nanos) -> {
+            Map<String, Long> micros = new TreeMap<>();
+            phase2Nanos.forEach((phase, nanos) -> micros.put(phase, micros(nanos.sum())));
+            tableMicros.put(table, micros);
+        });
+        report.put("tableMicros", tableMicros);
+        if (!unindexedCriteriaColumns.isEmpty()) {
+            report.put("unindexedCriteriaColumns", new TreeMap<>(unindexedCriteriaColumns));
+        }
+
+        Files.createDirectories(reportPath.getParent());
+        jsonMapper.writeValue(reportPath.toFile(), report);
+    }
+
+    private static long millis(long nanos) {
+        return TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
+
+    private static long micros(long nanos) {
+        return TimeUnit.NANOSECONDS.toMicros(nanos);
+    }
+}
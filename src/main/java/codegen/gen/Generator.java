@@ -1,5 +1,6 @@
 package codegen.gen;
 
+import java.util.Collections;
 import java.util.Set;
 import org.apache.maven.plugin.MojoExecutionException;
 import codegen.ConfigProperties;
@@ -13,4 +14,24 @@ import codegen.table.Table;
 public interface Generator {
     void generate(ConfigProperties configProperties, Set<Table> tables) throws MojoExecutionException;
 
+    /**
+     * 流式生成前调用一次，默认无需准备
+     */
+    default void prepare(ConfigProperties configProperties) throws MojoExecutionException {
+    }
+
+    /**
+     * 流式生成：生成并写入单个表对应的文件，不保留中间结果；
+     * 默认退化为只含该表的批量生成，未实现流式生成的扩展实现无需改动
+     */
+    default void generate(ConfigProperties configProperties, Table table) throws MojoExecutionException {
+        generate(configProperties, Collections.singleton(table));
+    }
+
+    /**
+     * 删除单个表对应的生成文件，用于watch模式下表被删除，需先调用prepare
+     */
+    default void remove(ConfigProperties configProperties, Table table) throws MojoExecutionException {
+    }
+
 }
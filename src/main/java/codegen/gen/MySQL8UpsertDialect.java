@@ -0,0 +1,31 @@
+package codegen.gen;
+
+import java.util.List;
+import codegen.ConfigProperties;
+import codegen.table.Table;
+
+/**
+ * MySQL 8.0.19及以上：insert ... values (...) as new on duplicate key update col = new.col，
+ * 用行别名代替8.0.20起deprecated的values(col)
+ *
+ * @date: 2026/10/17
+ **/
+public class MySQL8UpsertDialect extends MySQLUpsertDialect {
+
+    private static final String ROW_ALIAS = "new";
+
+    @Override
+    public boolean supports(ConfigProperties configProperties) {
+        return "mysql8".equalsIgnoreCase(configProperties.getUpsertDialect());
+    }
+
+    @Override
+    public String onConflictUpdate(Table table, List<String> keyColumns) {
+        return "as " + ROW_ALIAS + " on duplicate key update";
+    }
+
+    @Override
+    public String assignment(String column) {
+        return column + " = " + ROW_ALIAS + "." + column;
+    }
+}
@@ -0,0 +1,29 @@
+package codegen.gen;
+
+import java.util.List;
+import codegen.ConfigProperties;
+import codegen.table.Table;
+
+/**
+ * MySQL：insert ... on duplicate key update col = values(col)，主键或任一唯一索引冲突时更新。
+ * values(col)自MySQL 8.0.20起已标记为deprecated(仍可用)，8.0.19及以上可改用{@link MySQL8UpsertDialect}的行别名写法
+ *
+ * @date: 2026/10/17
+ **/
+public class MySQLUpsertDialect implements UpsertDialect {
+
+    @Override
+    public boolean supports(ConfigProperties configProperties) {
+        return "mysql".equalsIgnoreCase(configProperties.getUpsertDialect());
+    }
+
+    @Override
+    public String onConflictUpdate(Table table, List<String> keyColumns) {
+        return "on duplicate key update";
+    }
+
+    @Override
+    public String assignment(String column) {
+        return column + " = values(" + column + ")";
+    }
+}
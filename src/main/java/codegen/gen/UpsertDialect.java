@@ -0,0 +1,67 @@
+package codegen.gen;
+
+import java.util.List;
+import java.util.ServiceLoader;
+import java.util.stream.Collectors;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.maven.plugin.MojoExecutionException;
+import codegen.ConfigProperties;
+import codegen.table.Table;
+
+/**
+ * upsert语句的数据库方言：生成insert into ... values ...之后的冲突处理子句，
+ * 按ConfigProperties.upsertDialect通过ServiceLoader选择实现
+ *
+ * @date: 2026/10/17
+ **/
+public interface UpsertDialect {
+
+    /**
+     * 是否为配置的upsertDialect对应的实现
+     */
+    boolean supports(ConfigProperties configProperties);
+
+    /**
+     * 冲突处理子句的开头，如MySQL的on duplicate key update，PostgreSQL的on conflict (pk) do update set
+     *
+     * @param keyColumns 主键及唯一索引列，主键在第一个
+     */
+    String onConflictUpdate(Table table, List<String> keyColumns);
+
+    /**
+     * 冲突时把列更新为本次插入的值，如MySQL的col = values(col)，PostgreSQL的col = excluded.col
+     */
+    String assignment(String column);
+
+    /**
+     * insert ... values ...之后的完整子句，更新updateColumns的全部列；
+     * updateColumns为空(只有键列的表)时冲突不做修改，即key = key
+     *
+     * @param keyColumns    主键及唯一索引列，主键在第一个
+     * @param updateColumns 冲突时更新的列(除主键外的全部列)，可能为空
+     */
+    default String onConflict(Table table, List<String> keyColumns, List<String> updateColumns) {
+        if (updateColumns.isEmpty()) {
+            return onConflictUpdate(table, keyColumns) + " " + keyColumns.get(0) + " = " + keyColumns.get(0);
+        }
+        return onConflictUpdate(table, keyColumns) + " " + updateColumns.stream()
+                .map(this::assignment)
+                .collect(Collectors.joining(","));
+    }
+
+    /**
+     * upsertDialect为空时不生成upsert，返回null
+     */
+    static UpsertDialect of(ConfigProperties configProperties) throws MojoExecutionException {
+        if (StringUtils.isBlank(configProperties.getUpsertDialect())) {
+            return null;
+        }
+        for (UpsertDialect dialect : ServiceLoader.load(UpsertDialect.class)) {
+            if (dialect.supports(configProperties)) {
+                return dialect;
+            }
+        }
+        throw new MojoExecutionException("Failed to generate code: unsupported upsertDialect "
+                + configProperties.getUpsertDialect());
+    }
+}
@@ -2,31 +2,42 @@ package codegen.gen.java;
 
 import static codegen.gen.CommonUtil.JAVA_DOC;
 import static codegen.gen.CommonUtil.convertJDBCTypetoClass;
+import static codegen.gen.CommonUtil.delete;
+import static codegen.gen.CommonUtil.ensureDir;
+import static codegen.gen.CommonUtil.genStamp;
 import static codegen.gen.CommonUtil.getAbsolutePathForPkg;
-import static codegen.gen.CommonUtil.getAbsolutePathForSrcMainJava;
+import static codegen.gen.CommonUtil.indexFinderName;
+import static codegen.gen.CommonUtil.isPrimaryKey;
 import static codegen.gen.CommonUtil.mapUnderScoreToLowerCamelCase;
 import static codegen.gen.CommonUtil.mapUnderScoreToUpperCamelCase;
-import static codegen.gen.CommonUtil.prepareDir;
+import static codegen.gen.CommonUtil.persist;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Paths;
-import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.stream.Collectors;
 import javax.lang.model.element.Modifier;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.executor.BatchResult;
+import org.apache.ibatis.session.ExecutorType;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
 import org.apache.maven.plugin.MojoExecutionException;
 import com.google.common.collect.Lists;
-import com.google.common.collect.Maps;
 import com.squareup.javapoet.AnnotationSpec;
+import com.squareup.javapoet.ArrayTypeName;
 import com.squareup.javapoet.ClassName;
 import com.squareup.javapoet.CodeBlock;
 import com.squareup.javapoet.FieldSpec;
@@ -37,9 +48,15 @@ import com.squareup.javapoet.ParameterizedTypeName;
 import com.squareup.javapoet.TypeName;
 import com.squareup.javapoet.TypeSpec;
 import com.squareup.javapoet.TypeSpec.Builder;
+import com.squareup.javapoet.TypeVariableName;
 import codegen.ConfigProperties;
+import codegen.gen.GenExecutor;
+import codegen.gen.GenFileWriter;
+import codegen.gen.GenMetrics;
+import codegen.gen.UpsertDialect;
 import codegen.table.Table;
 import codegen.table.TableColumn;
+import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.Getter;
@@ -53,25 +70,65 @@ public class JavapoetGenerator implements CodeGenerator {
 
     protected ConfigProperties configProperties;
 
+    // 为null时不生成upsert
+    protected UpsertDialect upsertDialect;
+
     @Override
     public void generate(ConfigProperties configProperties, Set<Table> tables) throws MojoExecutionException {
         if (Objects.isNull(tables) || tables.size() == 0) {
             return;
         }
+        prepare(configProperties);
+
+        Map<String, TypeSpec> entityClassSpecs = generateEntity(tables);
+        Map<String, TypeSpec> queryExampleSpecs = generateQueryExample(tables);
+
+        generateMapperInterface(tables, entityClassSpecs, queryExampleSpecs);
+
+    }
+
+    @Override
+    public void prepare(ConfigProperties configProperties) throws MojoExecutionException {
         if (StringUtils.isBlank(configProperties.getEntityGenPkg()) ||
                 StringUtils.isBlank(configProperties.getMapperInterfaceGenPkg()) ||
                 StringUtils.isBlank(configProperties.getMapperXmlGenAbsPath())) {
             throw new MojoExecutionException("entityGenPkg or mapperInterfaceGenPkg or mapperXmlGenAbsPath blank");
         }
         this.configProperties = configProperties;
+        this.upsertDialect = UpsertDialect.of(configProperties);
         createDirsIfNecessary();
-
-        Map<String, TypeSpec> entityClassSpecs = generateEntity(tables);
         generateCriterion();
-        Map<String, TypeSpec> queryExampleSpecs = generateQueryExample(tables);
+    }
 
-        generateMapperInterface(tables, entityClassSpecs, queryExampleSpecs);
+    @Override
+    public void generate(ConfigProperties configProperties, Table table) throws MojoExecutionException {
+        GenMetrics metrics = this.configProperties.getMetrics();
+        TypeSpec entity = metrics.timeTable(table, "entity", () -> buildEntityForTable(table))
+                .values().iterator().next();
+        TypeSpec example = metrics.timeTable(table, "example", () -> buildQueryExampleForTableUnchecked(table))
+                .values().iterator().next();
+        TypeSpec mapper = metrics.timeTable(table, "mapper", () -> buildMapperInterfaceForTable(table, entity, example))
+                .values().iterator().next();
+
+        metrics.timeTable(table, "writeJava", () -> {
+            persistTypeSpec(this.configProperties.getEntityGenPkg(), Collections.singletonList(entity));
+            persistTypeSpec(this.configProperties.getMapperInterfaceGenPkg(), Arrays.asList(example, mapper));
+            return null;
+        });
+    }
 
+    @Override
+    public void remove(ConfigProperties configProperties, Table table) throws MojoExecutionException {
+        String simpleClassName = mapUnderScoreToUpperCamelCase(table.getName());
+        String entityDir = getAbsolutePathForPkg(this.configProperties.getBaseDir(), this.configProperties.getEntityGenPkg());
+        String mapperDir = getAbsolutePathForPkg(this.configProperties.getBaseDir(), this.configProperties.getMapperInterfaceGenPkg());
+        try {
+            delete(this.configProperties, Paths.get(entityDir, simpleClassName + ".java"));
+            delete(this.configProperties, Paths.get(mapperDir, simpleClassName + "Example.java"));
+            delete(this.configProperties, Paths.get(mapperDir, simpleClassName + "Mapper.java"));
+        } catch (IOException e) {
+            throw new MojoExecutionException("Failed to remove generated code of " + table.getName() + ": " + e);
+        }
     }
 
     private void generateCriterion() {
@@ -137,44 +194,372 @@ public class JavapoetGenerator implements CodeGenerator {
                         .build()
                 ).build();
 
-        persistTypeSpec(this.configProperties.getMapperInterfaceGenPkg(),Collections.singletonList(criterion));
+        persistTypeSpec(this.configProperties.getMapperInterfaceGenPkg(),Arrays.asList(criterion, batchExecutor()));
+
+        if (this.configProperties.isSharedCriteria()) {
+            generateSharedCriteria();
+        }
+    }
+
+    /**
+     * ExecutorType.BATCH执行器：同一个SqlSession中按单条语句批量执行，每flushEvery条flush一次
+     */
+    private TypeSpec batchExecutor() {
+        TypeVariableName m = TypeVariableName.get("M");
+        TypeVariableName t = TypeVariableName.get("T");
+        return TypeSpec.classBuilder("MapperBatchExecutor")
+                .addModifiers(Modifier.PUBLIC, Modifier.FINAL)
+                .addJavadoc("Runs one mapper statement per item on an $T.BATCH session,\n"
+                        + "flushing every flushEvery statements and committing at the end\n", ExecutorType.class)
+                .addMethod(MethodSpec.constructorBuilder()
+                        .addModifiers(Modifier.PRIVATE)
+                        .build())
+                .addMethod(MethodSpec.methodBuilder("execute")
+                        .addModifiers(Modifier.PUBLIC, Modifier.STATIC)
+                        .addJavadoc("@return the number of affected rows reported by the driver\n")
+                        .addTypeVariable(m)
+                        .addTypeVariable(t)
+                        .returns(TypeName.INT)
+                        .addParameter(SqlSessionFactory.class, "sqlSessionFactory")
+                        .addParameter(ParameterizedTypeName.get(ClassName.get(Class.class), m), "mapperType")
+                        .addParameter(ParameterizedTypeName.get(ClassName.get(Iterable.class), t), "items")
+                        .addParameter(TypeName.INT, "flushEvery")
+                        .addParameter(ParameterizedTypeName.get(ClassName.get(BiConsumer.class), m, t), "statement")
+                        .beginControlFlow("try ($T sqlSession = sqlSessionFactory.openSession($T.BATCH, false))",
+                                SqlSession.class, ExecutorType.class)
+                        .addStatement("M mapper = sqlSession.getMapper(mapperType)")
+                        .addStatement("int rows = 0")
+                        .addStatement("int pending = 0")
+                        .beginControlFlow("for (T item : items)")
+                        .addStatement("statement.accept(mapper, item)")
+                        .beginControlFlow("if (++pending >= flushEvery)")
+                        .addStatement("rows += affectedRows(sqlSession.flushStatements())")
+                        .addStatement("pending = 0")
+                        .endControlFlow()
+                        .endControlFlow()
+                        .addStatement("rows += affectedRows(sqlSession.flushStatements())")
+                        .addStatement("sqlSession.commit()")
+                        .addStatement("return rows")
+                        .endControlFlow()
+                        .build())
+                .addMethod(MethodSpec.methodBuilder("affectedRows")
+                        .addModifiers(Modifier.PRIVATE, Modifier.STATIC)
+                        .returns(TypeName.INT)
+                        .addParameter(ParameterizedTypeName.get(List.class, BatchResult.class), "results")
+                        .addStatement("int rows = 0")
+                        .beginControlFlow("for ($T result : results)", BatchResult.class)
+                        .beginControlFlow("for (int count : result.getUpdateCounts())")
+                        .addComment("SUCCESS_NO_INFO(-2) is not counted")
+                        .beginControlFlow("if (count > 0)")
+                        .addStatement("rows += count")
+                        .endControlFlow()
+                        .endControlFlow()
+                        .endControlFlow()
+                        .addStatement("return rows")
+                        .build())
+                .build();
+    }
+
+    /**
+     * sharedCriteria模式下，Example/Criteria中与列无关的部分只生成一次：BaseExample、BaseCriteria
+     */
+    private void generateSharedCriteria() {
+        ClassName criterion = ClassName.get(configProperties.getMapperInterfaceGenPkg(), "Criterion");
+        ClassName baseCriteria = ClassName.get(configProperties.getMapperInterfaceGenPkg(), "BaseCriteria");
+        ClassName baseExample = ClassName.get(configProperties.getMapperInterfaceGenPkg(), "BaseExample");
+
+        TypeSpec baseCriteriaSpec = TypeSpec.classBuilder("BaseCriteria")
+                .addModifiers(Modifier.PUBLIC, Modifier.ABSTRACT)
+                .addField(FieldSpec.builder(ParameterizedTypeName.get(ClassName.get(List.class),criterion),"criteria",Modifier.PRIVATE).build())
+                .addMethod(MethodSpec.constructorBuilder()
+                        .addModifiers(Modifier.PROTECTED)
+                        .addStatement("criteria = new $T<>()",ArrayList.class)
+                        .build())
+                .addMethod(MethodSpec.methodBuilder("isValid")
+                        .addModifiers(Modifier.PUBLIC)
+                        .returns(TypeName.BOOLEAN)
+                        .addStatement("return criteria!=null && criteria.size() > 0")
+                        .build())
+                .addMethod(MethodSpec.methodBuilder("getCriteria")
+                        .addModifiers(Modifier.PUBLIC)
+                        .returns(ParameterizedTypeName.get(ClassName.get(List.class),criterion))
+                        .addStatement("return criteria")
+                        .build())
+                .addMethod(MethodSpec.methodBuilder("addCriterion")
+                        .addModifiers(Modifier.PROTECTED)
+                        .returns(TypeName.VOID)
+                        .addParameter(String.class,"condition")
+                        .addStatement("    if (condition == null) {\n"
+                                + "    throw new $T(\"Value for condition cannot be null \");\n"
+                                + "}\n"
+                                + "criteria.add(new $T(condition));",RuntimeException.class,criterion)
+                        .build())
+                .addMethod(MethodSpec.methodBuilder("addCriterion")
+                        .addModifiers(Modifier.PROTECTED)
+                        .returns(TypeName.VOID)
+                        .addParameter(String.class,"condition")
+                        .addParameter(Object.class,"value")
+                        .addParameter(String.class,"property")
+                        .addStatement("    if (value == null) {\n"
+                                + "    throw new $T(\"Value for condition cannot be null \");\n"
+                                + "}\n"
+                                + "criteria.add(new $T(condition,value));",RuntimeException.class,criterion)
+                        .build())
+                .addMethod(MethodSpec.methodBuilder("addCriterion")
+                        .addModifiers(Modifier.PROTECTED)
+                        .returns(TypeName.VOID)
+                        .addParameter(String.class,"condition")
+                        .addParameter(Object.class,"value1")
+                        .addParameter(Object.class,"value2")
+                        .addParameter(String.class,"property")
+                        .addStatement("    if (value1 == null || value2 == null) {\n"
+                                + "    throw new $T(\"between values for condition cannot be null \");\n"
+                                + "}\n"
+                                + "criteria.add(new $T(condition,value1,value2));",RuntimeException.class,criterion)
+                        .build())
+                .build();
+
+        TypeVariableName e = TypeVariableName.get("E",
+                ParameterizedTypeName.get(baseExample, TypeVariableName.get("E"), TypeVariableName.get("C")));
+        TypeVariableName c = TypeVariableName.get("C", baseCriteria);
+        // (E) this为未检查转换，javac不识别类上的"all"，需在方法上单独声明
+        AnnotationSpec unchecked = AnnotationSpec.builder(SuppressWarnings.class)
+                .addMember("value", CodeBlock.of("$S", "unchecked")).build();
 
+        TypeSpec baseExampleSpec = TypeSpec.classBuilder("BaseExample")
+                .addModifiers(Modifier.PUBLIC, Modifier.ABSTRACT)
+                .addTypeVariable(e)
+                .addTypeVariable(c)
+                .addAnnotation(Getter.class)
+                .addAnnotation(AnnotationSpec.builder(SuppressWarnings.class).addMember("value",CodeBlock.of("$S","all")).build())
+                .addField(FieldSpec.builder(String.class,"orderByClause",Modifier.PRIVATE).build())
+                .addField(FieldSpec.builder(TypeName.BOOLEAN,"distinct",Modifier.PRIVATE).build())
+                .addField(FieldSpec.builder(ParameterizedTypeName.get(ClassName.get(List.class),c),"oredCriteria",Modifier.PRIVATE)
+                        .initializer("new $T<>()", ArrayList.class).build())
+                .addField(FieldSpec.builder(Integer.class,"limit",Modifier.PRIVATE).build())
+                .addField(FieldSpec.builder(Integer.class,"offset",Modifier.PRIVATE).build())
+                .addField(selectedColumnsField())
+                .addMethod(MethodSpec.methodBuilder("or")
+                        .addModifiers(Modifier.PUBLIC)
+                        .returns(c)
+                        .addStatement(
+                                "    C criteria = createCriteriaInternal();\n"
+                                + "oredCriteria.add(criteria);\n"
+                                + "return criteria")
+                        .build())
+                .addMethod(MethodSpec.methodBuilder("createCriteria")
+                        .addModifiers(Modifier.PUBLIC)
+                        .returns(c)
+                        .addStatement("    C criteria = createCriteriaInternal();\n"
+                                + "if (oredCriteria.size() == 0) {\n"
+                                + "    oredCriteria.add(criteria);\n"
+                                + "}\n"
+                                + "return criteria")
+                        .build())
+                .addMethod(MethodSpec.methodBuilder("createCriteriaInternal")
+                        .addModifiers(Modifier.PROTECTED, Modifier.ABSTRACT)
+                        .returns(c)
+                        .build())
+                .addMethod(MethodSpec.methodBuilder("clear")
+                        .addModifiers(Modifier.PUBLIC)
+                        .returns(TypeName.VOID)
+                        .addStatement("    oredCriteria.clear();\n"
+                                + "orderByClause = null;\n"
+                                + "distinct = false;\n"
+                                + "selectedColumns.clear()")
+                        .build())
+                .addMethod(selectedColumnsGetter())
+                .addMethod(MethodSpec.methodBuilder("addSelectedColumn")
+                        .addModifiers(Modifier.PROTECTED)
+                        .returns(TypeName.VOID)
+                        .addParameter(String.class,"column")
+                        .addStatement("selectedColumns.add(column)")
+                        .build())
+                .addMethod(MethodSpec.methodBuilder("setDistinct")
+                        .addAnnotation(unchecked)
+                        .addModifiers(Modifier.PUBLIC)
+                        .returns(e)
+                        .addParameter(TypeName.BOOLEAN,"distinct")
+                        .addStatement("this.distinct = distinct;\n"
+                                + "return (E) this")
+                        .build())
+                .addMethod(MethodSpec.methodBuilder("setOrderByClause")
+                        .addAnnotation(unchecked)
+                        .addModifiers(Modifier.PUBLIC)
+                        .returns(e)
+                        .addParameter(String.class,"orderByClause")
+                        .addStatement("    this.orderByClause = orderByClause;\n"
+                                + "return (E) this")
+                        .build())
+                .addMethod(MethodSpec.methodBuilder("setLimit")
+                        .addAnnotation(unchecked)
+                        .addModifiers(Modifier.PUBLIC)
+                        .returns(e)
+                        .addParameter(ParameterSpec.builder(Integer.class,"limit").build())
+                        .addStatement("    this.limit = limit;\n"
+                                + "return (E) this")
+                        .build())
+                .addMethod(MethodSpec.methodBuilder("setOffset")
+                        .addAnnotation(unchecked)
+                        .addModifiers(Modifier.PUBLIC)
+                        .returns(e)
+                        .addParameter(ParameterSpec.builder(Integer.class,"offset").build())
+                        .addStatement("    this.offset = offset;\n"
+                                + "return (E) this")
+                        .build())
+                .build();
+
+        persistTypeSpec(this.configProperties.getMapperInterfaceGenPkg(), Arrays.asList(baseCriteriaSpec, baseExampleSpec));
+    }
+
+    /**
+     * sharedCriteria模式下的Example：继承BaseExample，Criteria继承BaseCriteria，只包含按列生成的方法
+     */
+    private TypeSpec buildSharedQueryExample(Table table, ClassName thisClass, ClassName criteria,
+            List<MethodSpec> columnMethods) {
+        ClassName baseCriteria = ClassName.get(configProperties.getMapperInterfaceGenPkg(), "BaseCriteria");
+        ClassName baseExample = ClassName.get(configProperties.getMapperInterfaceGenPkg(), "BaseExample");
+
+        TypeSpec criteriaSpec = TypeSpec.classBuilder("Criteria")
+                .addModifiers(Modifier.PUBLIC, Modifier.STATIC)
+                .superclass(baseCriteria)
+                .addMethods(columnMethods)
+                .build();
+
+        return TypeSpec.classBuilder(thisClass.simpleName())
+                .addModifiers(Modifier.PUBLIC)
+                .superclass(ParameterizedTypeName.get(baseExample, thisClass, criteria))
+                .addAnnotation(AnnotationSpec.builder(SuppressWarnings.class).addMember("value",CodeBlock.of("$S","all")).build())
+                .addMethod(MethodSpec.methodBuilder("createCriteriaInternal")
+                        .addAnnotation(Override.class)
+                        .addModifiers(Modifier.PROTECTED)
+                        .returns(criteria)
+                        .addStatement("return new Criteria()")
+                        .build())
+                .addMethod(selectColumns(thisClass, "addSelectedColumn(column.getValue())"))
+                .addType(criteriaSpec)
+                .addType(columnEnum(table))
+                .build();
+    }
+
+    /**
+     * Example中的列枚举，select(Column...)只接受枚举值，拼接到sql中的列名均来自表结构
+     */
+    private TypeSpec columnEnum(Table table) {
+        Builder builder = TypeSpec.enumBuilder("Column")
+                .addModifiers(Modifier.PUBLIC)
+                .addField(FieldSpec.builder(String.class, "value", Modifier.PRIVATE, Modifier.FINAL).build())
+                .addMethod(MethodSpec.constructorBuilder()
+                        .addParameter(String.class, "value")
+                        .addStatement("this.value = value")
+                        .build())
+                .addMethod(MethodSpec.methodBuilder("getValue")
+                        .addModifiers(Modifier.PUBLIC)
+                        .returns(String.class)
+                        .addStatement("return value")
+                        .build());
+        for (TableColumn column : table.getColumns()) {
+            builder.addEnumConstant(column.getColumnName().toUpperCase(Locale.ROOT),
+                    TypeSpec.anonymousClassBuilder("$S", column.getColumnName()).build());
+        }
+        return builder.build();
+    }
+
+    /**
+     * @param addStatement 加入一列的语句，sharedCriteria模式下selectedColumns在BaseExample中，需通过addSelectedColumn加入
+     */
+    private MethodSpec selectColumns(ClassName thisClass, String addStatement) {
+        return MethodSpec.methodBuilder("select")
+                .addModifiers(Modifier.PUBLIC)
+                .addJavadoc("Selects only the given columns instead of all columns, unselected properties stay null\n")
+                .returns(thisClass)
+                .addParameter(ArrayTypeName.of(thisClass.nestedClass("Column")), "columns")
+                .varargs()
+                .beginControlFlow("for (Column column : columns)")
+                .addStatement(addStatement)
+                .endControlFlow()
+                .addStatement("return this")
+                .build();
+    }
+
+    /**
+     * 查询列，以${column}拼接到sql中，只能通过select(Column...)加入；getter返回副本
+     * (不用Collections.unmodifiableList：OGNL无法反射调用JDK内部类的方法)
+     */
+    private FieldSpec selectedColumnsField() {
+        return FieldSpec.builder(ParameterizedTypeName.get(List.class, String.class), "selectedColumns", Modifier.PRIVATE)
+                .addAnnotation(AnnotationSpec.builder(Getter.class)
+                        .addMember("value", "$T.NONE", AccessLevel.class).build())
+                .initializer("new $T<>()", ArrayList.class)
+                .build();
+    }
+
+    private MethodSpec selectedColumnsGetter() {
+        return MethodSpec.methodBuilder("getSelectedColumns")
+                .addModifiers(Modifier.PUBLIC)
+                .addJavadoc("Copy of the columns chosen by select(Column...), changes to it do not affect this example\n")
+                .returns(ParameterizedTypeName.get(List.class, String.class))
+                .addStatement("return new $T<>(selectedColumns)", ArrayList.class)
+                .build();
     }
 
 
     private void createDirsIfNecessary() throws MojoExecutionException {
-        prepareDir(getAbsolutePathForPkg(this.configProperties.getBaseDir(), configProperties.getMapperInterfaceGenPkg()));
-        prepareDir(getAbsolutePathForPkg(this.configProperties.getBaseDir(), this.configProperties.getEntityGenPkg()));
-        prepareDir(this.configProperties.getMapperXmlGenAbsPath());
+        String mapperDir = getAbsolutePathForPkg(this.configProperties.getBaseDir(), configProperties.getMapperInterfaceGenPkg());
+        String entityDir = getAbsolutePathForPkg(this.configProperties.getBaseDir(), this.configProperties.getEntityGenPkg());
+        ensureDir(mapperDir);
+        ensureDir(entityDir);
+        ensureDir(this.configProperties.getMapperXmlGenAbsPath());
+        // 由清单管理时(增量模式或skipIfUpToDate)由GenManifest.deleteOrphans删除上次生成而本次未生成的文件
+        if (this.configProperties.isIncremental() || Objects.nonNull(this.configProperties.getManifest())) {
+            return;
+        }
+        // 非增量模式：生成结束后删除目录中本次未生成的文件，不预先清空，内容未变的文件保持不动
+        GenFileWriter fileWriter = this.configProperties.getFileWriter();
+        fileWriter.sweepAfterRun(mapperDir);
+        fileWriter.sweepAfterRun(entityDir);
+        fileWriter.sweepAfterRun(this.configProperties.getMapperXmlGenAbsPath());
+    }
+
+    private void persistTypeSpecTimed(String genPkg, Collection<TypeSpec> typeSpecs) {
+        long start = System.nanoTime();
+        persistTypeSpec(genPkg, typeSpecs);
+        this.configProperties.getMetrics().addPhase("writeJava", System.nanoTime() - start);
     }
 
     private void persistTypeSpec(String genPkg, Collection<TypeSpec> typeSpecs) {
-        typeSpecs.forEach(ts -> {
+        GenExecutor.forEach(this.configProperties, typeSpecs, ts -> {
             JavaFile file = JavaFile.builder(genPkg, ts).build();
             try {
-                file.writeTo(Paths.get(getAbsolutePathForSrcMainJava(this.configProperties.getBaseDir())));
-            } catch (IOException e) {
+                persist(this.configProperties,
+                        Paths.get(getAbsolutePathForPkg(this.configProperties.getBaseDir(), genPkg), ts.name + ".java"),
+                        file.toString().getBytes(StandardCharsets.UTF_8));
+            } catch (IOException | MojoExecutionException e) {
                 throw new RuntimeException(e);
             }
         });
     }
 
     private Map<String, TypeSpec> generateQueryExample(Set<Table> tables) {
+        long start = System.nanoTime();
         Map<String, TypeSpec> queryExampleSpecs = buildQueryExamples(tables);
-        persistTypeSpec(this.configProperties.getMapperInterfaceGenPkg(), queryExampleSpecs.values());
+        this.configProperties.getMetrics().addPhase("example", System.nanoTime() - start);
+        persistTypeSpecTimed(this.configProperties.getMapperInterfaceGenPkg(), queryExampleSpecs.values());
         return queryExampleSpecs;
     }
 
-    private Map<String, TypeSpec> buildQueryExamples(Set<Table> tables) {
-        Map<String, TypeSpec> examples = Maps.newHashMap();
-        tables.forEach(t -> {
-            try {
-                examples.putAll(buildQueryExampleForTable(t));
-            } catch (ClassNotFoundException e) {
-                throw new RuntimeException(e);
-            }
-        });
-        return examples;
+    public Map<String, TypeSpec> buildQueryExamples(Set<Table> tables) {
+        GenMetrics metrics = this.configProperties.getMetrics();
+        return GenExecutor.map(this.configProperties, tables,
+                t -> metrics.timeTable(t, "example", () -> buildQueryExampleForTableUnchecked(t)));
+    }
+
+    private Map<String, TypeSpec> buildQueryExampleForTableUnchecked(Table table) {
+        try {
+            return buildQueryExampleForTable(table);
+        } catch (ClassNotFoundException e) {
+            throw new RuntimeException(e);
+        }
     }
 
     private Map<String, TypeSpec> buildQueryExampleForTable(Table table) throws ClassNotFoundException {
@@ -282,6 +667,17 @@ public class JavapoetGenerator implements CodeGenerator {
             ms.addAll(Arrays.asList(_1,_2,_3,_4,_5,_6,_7,_8,_9,_10,_11,_12));
         }
 
+        if (configProperties.isReportUnindexedCriteria()) {
+            configProperties.getMetrics().addUnindexedCriteriaColumns(table, table.getColumns().stream()
+                    .filter(c -> !c.isLeadingIndexed() && !isPrimaryKey(table, c))
+                    .map(TableColumn::getColumnName)
+                    .collect(Collectors.toList()));
+        }
+
+        if (configProperties.isSharedCriteria()) {
+            return Collections.singletonMap(simpleClassName, buildSharedQueryExample(table, thisClass, criteria, ms));
+        }
+
 
         TypeSpec criteriaSpec = TypeSpec.classBuilder("Criteria")
                 .addModifiers(Modifier.PUBLIC, Modifier.STATIC)
@@ -345,9 +741,11 @@ public class JavapoetGenerator implements CodeGenerator {
                 .addAnnotation(AnnotationSpec.builder(SuppressWarnings.class).addMember("value",CodeBlock.of("$S","all")).build())
                 .addField(FieldSpec.builder(String.class,"orderByClause",Modifier.PRIVATE).build())
                 .addField(FieldSpec.builder(TypeName.BOOLEAN,"distinct",Modifier.PRIVATE).build())
-                .addField(FieldSpec.builder(ParameterizedTypeName.get(ClassName.get(List.class),criteria),"oredCriteria",Modifier.PRIVATE).build())
+                .addField(FieldSpec.builder(ParameterizedTypeName.get(ClassName.get(List.class),criteria),"oredCriteria",Modifier.PRIVATE)
+                        .initializer("new $T<>()", ArrayList.class).build())
                 .addField(FieldSpec.builder(Integer.class,"limit",Modifier.PRIVATE).build())
                 .addField(FieldSpec.builder(Integer.class,"offset",Modifier.PRIVATE).build())
+                .addField(selectedColumnsField())
 
                 .addMethod(MethodSpec.methodBuilder("or")
                         .addModifiers(Modifier.PUBLIC)
@@ -376,8 +774,10 @@ public class JavapoetGenerator implements CodeGenerator {
                         .returns(TypeName.VOID)
                         .addStatement("    oredCriteria.clear();\n"
                                 + "orderByClause = null;\n"
-                                + "distinct = false")
+                                + "distinct = false;\n"
+                                + "selectedColumns.clear()")
                         .build())
+                .addMethod(selectedColumnsGetter())
                 .addMethod(MethodSpec.methodBuilder("setDistinct")
                         .addModifiers(Modifier.PUBLIC)
                         .returns(thisClass)
@@ -408,7 +808,9 @@ public class JavapoetGenerator implements CodeGenerator {
                                 + "return this")
                         .build())
 
+                .addMethod(selectColumns(thisClass, "selectedColumns.add(column.getValue())"))
                 .addType(criteriaSpec)
+                .addType(columnEnum(table))
                 ;
 
 
@@ -421,22 +823,24 @@ public class JavapoetGenerator implements CodeGenerator {
     @SuppressWarnings("all")
     public Map<String, TypeSpec> generateMapperInterface(Set<Table> tables, Map<String, TypeSpec> entityClassSpecs,
             Map<String, TypeSpec> queryExampleSpecs) {
+        long start = System.nanoTime();
         Map<String, TypeSpec> interfaceSpecs = buildMapperInterfaces(tables, entityClassSpecs, queryExampleSpecs);
-        persistTypeSpec(this.configProperties.getMapperInterfaceGenPkg(), interfaceSpecs.values());
+        this.configProperties.getMetrics().addPhase("mapper", System.nanoTime() - start);
+        persistTypeSpecTimed(this.configProperties.getMapperInterfaceGenPkg(), interfaceSpecs.values());
         return interfaceSpecs;
     }
 
-    private Map<String, TypeSpec> buildMapperInterfaces(Set<Table> tables, Map<String, TypeSpec> entityClassSpecs,
+    public Map<String, TypeSpec> buildMapperInterfaces(Set<Table> tables, Map<String, TypeSpec> entityClassSpecs,
             Map<String, TypeSpec> queryExampleSpecs) {
-        Map<String, TypeSpec> entities = Maps.newHashMap();
-        tables.forEach(t -> {
+        GenMetrics metrics = this.configProperties.getMetrics();
+        return GenExecutor.map(this.configProperties, tables, t -> {
             String simpleClassName = mapUnderScoreToUpperCamelCase(t.getName());
             if(entityClassSpecs.get(simpleClassName) !=null && queryExampleSpecs.get(simpleClassName + "Example")!=null){
-                entities.putAll(buildMapperInterfaceForTable(t, entityClassSpecs.get(simpleClassName),
-                        queryExampleSpecs.get(simpleClassName + "Example")));
+                return metrics.timeTable(t, "mapper", () -> buildMapperInterfaceForTable(t,
+                        entityClassSpecs.get(simpleClassName), queryExampleSpecs.get(simpleClassName + "Example")));
             }
+            return Collections.emptyMap();
         });
-        return entities;
     }
 
 
@@ -447,7 +851,7 @@ public class JavapoetGenerator implements CodeGenerator {
         Builder interfaceBuilder = TypeSpec.interfaceBuilder(interfaceName)
                 .addModifiers(Modifier.PUBLIC)
                 .addAnnotation(Mapper.class)
-                .addJavadoc(JAVA_DOC + LocalDateTime.now());
+                .addJavadoc(JAVA_DOC + genStamp(this.configProperties, table));
 
         TableColumn primaryKeyColumn = table.getPrimaryKeyColumn();
         String primaryKeyColumnName = primaryKeyColumn.getColumnName();
@@ -503,6 +907,38 @@ public class JavapoetGenerator implements CodeGenerator {
                 .build();
 
 
+        MethodSpec selectCursor = MethodSpec.methodBuilder("select" + entityClassSpec.name + "sCursor")
+                .addModifiers(Modifier.PUBLIC, Modifier.ABSTRACT)
+                .addJavadoc("Streams the rows of select$Ls instead of materializing them,\n"
+                        + "the cursor must be iterated and closed before the SqlSession is closed\n", entityClassSpec.name)
+                .returns(ParameterizedTypeName.get(ClassName.get(Cursor.class), entityClassName))
+                .addParameter(exampleParamSpec)
+                .build();
+
+        MethodSpec selectByPKey = MethodSpec.methodBuilder(
+                        "select" + entityClassSpec.name + "By" + mapUnderScoreToUpperCamelCase(primaryKeyColumnName))
+                .addModifiers(Modifier.PUBLIC, Modifier.ABSTRACT)
+                .addParameter(pKeyParamSpec)
+                .returns(entityClassName)
+                .build();
+
+        MethodSpec selectAfter = MethodSpec.methodBuilder("select" + entityClassSpec.name + "sAfter")
+                .addModifiers(Modifier.PUBLIC, Modifier.ABSTRACT)
+                .addJavadoc("Keyset pagination ordered by $L: the first $L rows whose $L is greater than last,\n"
+                                + "pass null for the first page and the $L of the previous page's last row afterwards\n",
+                        primaryKeyColumnName, "limit", primaryKeyColumnName, primaryKeyColumnName)
+                .returns(ParameterizedTypeName.get(ClassName.get(List.class), entityClassName))
+                .addParameter(ParameterSpec.builder(convertJDBCTypetoClass(primaryKeyColumn.getDataType()), "last")
+                        .addAnnotation(AnnotationSpec.builder(Param.class).addMember("value", "\"last\"").build())
+                        .build())
+                .addParameter(ParameterSpec.builder(TypeName.INT, "limit")
+                        .addAnnotation(AnnotationSpec.builder(Param.class).addMember("value", "\"limit\"").build())
+                        .build())
+                .addParameter(ParameterSpec.builder(exampleClassName, "example")
+                        .addAnnotation(AnnotationSpec.builder(Param.class).addMember("value", "\"example\"").build())
+                        .build())
+                .build();
+
         MethodSpec delete = MethodSpec.methodBuilder("delete" + entityClassSpec.name)
                 .addModifiers(Modifier.PUBLIC, Modifier.ABSTRACT)
                 .addParameter(exampleParamSpec)
@@ -513,29 +949,255 @@ public class JavapoetGenerator implements CodeGenerator {
                 insert,
                 updateByPKey,
                 count,
+                selectByPKey,
                 batchSelect,
+                selectCursor,
+                selectAfter,
                 delete
         );
 
+        addSelectByPKeys(interfaceBuilder, methodSpecs, entityClassSpec.name, entityClassName, primaryKeyColumn);
+        addIndexFinders(methodSpecs, table, entityClassName);
+
+        boolean batchInsert = table.getColumns().stream().anyMatch(c -> !c.isAutoIncrement());
+        if (batchInsert || Objects.nonNull(this.upsertDialect)) {
+            interfaceBuilder.addField(FieldSpec.builder(TypeName.INT, "BATCH_INSERT_MAX_ROWS",
+                            Modifier.PUBLIC, Modifier.STATIC, Modifier.FINAL)
+                    .initializer("$L", this.configProperties.getBatchInsertMaxRows())
+                    .build());
+        }
+        if (batchInsert) {
+            addBatchInsert(methodSpecs, entityClassSpec.name, entityClassName);
+        }
+        if (Objects.nonNull(this.upsertDialect)) {
+            addUpsert(methodSpecs, entityClassSpec.name, entityClassName, entityParamSpec);
+        }
+
+        if (table.getColumns().stream().anyMatch(c -> !isPrimaryKey(table, c))) {
+            addBatchUpdate(interfaceBuilder, methodSpecs, entityClassSpec.name, entityClassName, primaryKeyColumnName);
+        }
+
         interfaceBuilder.addMethods(methodSpecs);
         return Collections.singletonMap(interfaceName, interfaceBuilder.build());
     }
 
 
+    /**
+     * 按索引的第一列(主键除外)查询：单列唯一索引返回单行，其他返回列表；
+     * 联合索引的非第一列按等值条件用不上索引，不生成
+     */
+    private void addIndexFinders(List<MethodSpec> methodSpecs, Table table, ClassName entityClassName) {
+        for (TableColumn column : table.getColumns()) {
+            if (!column.isLeadingIndexed() || isPrimaryKey(table, column)) {
+                continue;
+            }
+            String paramName = mapUnderScoreToLowerCamelCase(column.getColumnName());
+            MethodSpec.Builder finder = MethodSpec.methodBuilder(indexFinderName(table, column))
+                    .addModifiers(Modifier.PUBLIC, Modifier.ABSTRACT)
+                    .addParameter(ParameterSpec.builder(convertJDBCTypetoClass(column.getDataType()), paramName)
+                            .addAnnotation(AnnotationSpec.builder(Param.class)
+                                    .addMember("value", "\"" + paramName + "\"")
+                                    .build())
+                            .build());
+            if (column.isSingleUniqIndexed()) {
+                finder.returns(entityClassName);
+            } else {
+                finder.returns(ParameterizedTypeName.get(ClassName.get(List.class), entityClassName));
+            }
+            methodSpecs.add(finder.build());
+        }
+    }
+
+    /**
+     * 按主键批量查询：selectXxxsByPksChunk对应一条where pk in (...)语句，
+     * selectXxxsByPks按SELECT_IN_MAX_SIZE分批调用，主键集合为空时不查询
+     */
+    private void addSelectByPKeys(Builder interfaceBuilder, List<MethodSpec> methodSpecs, String entityName,
+            ClassName entityClassName, TableColumn primaryKeyColumn) {
+        TypeName pKeyType = TypeName.get(convertJDBCTypetoClass(primaryKeyColumn.getDataType()));
+        ParameterizedTypeName pKeysType = ParameterizedTypeName.get(ClassName.get(Collection.class), pKeyType);
+        ParameterizedTypeName listType = ParameterizedTypeName.get(ClassName.get(List.class), entityClassName);
+        String methodName = "select" + entityName + "sBy"
+                + mapUnderScoreToUpperCamelCase(primaryKeyColumn.getColumnName()) + "s";
+        String chunkMethodName = methodName + "Chunk";
+
+        interfaceBuilder.addField(FieldSpec.builder(TypeName.INT, "SELECT_IN_MAX_SIZE",
+                        Modifier.PUBLIC, Modifier.STATIC, Modifier.FINAL)
+                .initializer("$L", this.configProperties.getSelectInMaxSize())
+                .build());
+
+        MethodSpec selectByPKeys = MethodSpec.methodBuilder(methodName)
+                .addModifiers(Modifier.PUBLIC, Modifier.DEFAULT)
+                .addJavadoc("Selects by $L with at most SELECT_IN_MAX_SIZE keys per statement, returns an empty list for empty pks\n",
+                        primaryKeyColumn.getColumnName())
+                .addParameter(pKeysType, "pks")
+                .returns(listType)
+                .beginControlFlow("if (pks.isEmpty())")
+                .addStatement("return new $T<>()", ArrayList.class)
+                .endControlFlow()
+                .beginControlFlow("if (pks.size() <= SELECT_IN_MAX_SIZE)")
+                .addStatement("return $N(pks)", chunkMethodName)
+                .endControlFlow()
+                .addStatement("$T<$T> list = new $T<>(pks)", List.class, pKeyType, ArrayList.class)
+                .addStatement("$T result = new $T<>(list.size())", listType, ArrayList.class)
+                .beginControlFlow("for (int i = 0; i < list.size(); i += SELECT_IN_MAX_SIZE)")
+                .addStatement("result.addAll($N(list.subList(i, Math.min(i + SELECT_IN_MAX_SIZE, list.size()))))",
+                        chunkMethodName)
+                .endControlFlow()
+                .addStatement("return result")
+                .build();
+
+        MethodSpec selectByPKeysChunk = MethodSpec.methodBuilder(chunkMethodName)
+                .addModifiers(Modifier.PUBLIC, Modifier.ABSTRACT)
+                .addParameter(ParameterSpec.builder(pKeysType, "pks")
+                        .addAnnotation(AnnotationSpec.builder(Param.class).addMember("value", "\"pks\"").build())
+                        .build())
+                .returns(listType)
+                .build();
+
+        methodSpecs.add(selectByPKeys);
+        methodSpecs.add(selectByPKeysChunk);
+    }
+
+    /**
+     * 按主键的多行update：batchUpdateXxxByPkChunk对应一条update ... set col = case pk when .. end语句，
+     * batchUpdateXxxByPk按BATCH_UPDATE_MAX_ROWS分批调用
+     */
+    private void addBatchUpdate(Builder interfaceBuilder, List<MethodSpec> methodSpecs, String entityName,
+            ClassName entityClassName, String primaryKeyColumnName) {
+        ParameterizedTypeName listType = ParameterizedTypeName.get(ClassName.get(List.class), entityClassName);
+        String methodName = "batchUpdate" + entityName + "By" + mapUnderScoreToUpperCamelCase(primaryKeyColumnName);
+        String chunkMethodName = methodName + "Chunk";
+
+        interfaceBuilder.addField(FieldSpec.builder(TypeName.INT, "BATCH_UPDATE_MAX_ROWS",
+                        Modifier.PUBLIC, Modifier.STATIC, Modifier.FINAL)
+                .initializer("$L", this.configProperties.getBatchUpdateMaxRows())
+                .build());
+
+        MethodSpec batchUpdate = MethodSpec.methodBuilder(methodName)
+                .addModifiers(Modifier.PUBLIC, Modifier.DEFAULT)
+                .addJavadoc("Updates rows by $L, at most BATCH_UPDATE_MAX_ROWS rows per statement,\n"
+                        + "null fields are left unchanged, returns 0 for an empty list\n", primaryKeyColumnName)
+                .addParameter(listType, "list")
+                .returns(Integer.class)
+                .beginControlFlow("if (list.isEmpty())")
+                .addStatement("return 0")
+                .endControlFlow()
+                .addStatement("int rows = 0")
+                .beginControlFlow("for (int i = 0; i < list.size(); i += BATCH_UPDATE_MAX_ROWS)")
+                .addStatement("rows += $N(list.subList(i, Math.min(i + BATCH_UPDATE_MAX_ROWS, list.size())))",
+                        chunkMethodName)
+                .endControlFlow()
+                .addStatement("return rows")
+                .build();
+
+        MethodSpec batchUpdateChunk = MethodSpec.methodBuilder(chunkMethodName)
+                .addModifiers(Modifier.PUBLIC, Modifier.ABSTRACT)
+                .addParameter(ParameterSpec.builder(listType, "list")
+                        .addAnnotation(AnnotationSpec.builder(Param.class).addMember("value", "\"list\"").build())
+                        .build())
+                .returns(Integer.class)
+                .build();
+
+        methodSpecs.add(batchUpdate);
+        methodSpecs.add(batchUpdateChunk);
+    }
+
+    /**
+     * upsertXxx插入一行，主键或唯一索引冲突时按方言更新除主键外的全部列；
+     * batchUpsertXxxChunk对应一条多行upsert语句，batchUpsertXxx按BATCH_INSERT_MAX_ROWS分批调用
+     */
+    private void addUpsert(List<MethodSpec> methodSpecs, String entityName, ClassName entityClassName,
+            ParameterSpec entityParamSpec) {
+        ParameterizedTypeName listType = ParameterizedTypeName.get(ClassName.get(List.class), entityClassName);
+        String chunkMethodName = "batchUpsert" + entityName + "Chunk";
+
+        MethodSpec upsert = MethodSpec.methodBuilder("upsert" + entityName)
+                .addModifiers(Modifier.PUBLIC, Modifier.ABSTRACT)
+                .addJavadoc("Inserts the row, or updates the non-null non primary key columns when a primary key\n"
+                        + "or unique index conflicts, null fields are inserted as DEFAULT and left unchanged on conflict\n")
+                .addParameter(entityParamSpec)
+                .returns(Integer.class)
+                .build();
+
+        MethodSpec batchUpsert = MethodSpec.methodBuilder("batchUpsert" + entityName)
+                .addModifiers(Modifier.PUBLIC, Modifier.DEFAULT)
+                .addJavadoc("Upserts at most BATCH_INSERT_MAX_ROWS rows per statement. On conflict every non primary key\n"
+                        + "column is overwritten with the row's value, a null field overwrites it with the column\n"
+                        + "default, so pass fully populated rows\n")
+                .addParameter(listType, "list")
+                .returns(Integer.class)
+                .addStatement("int rows = 0")
+                .beginControlFlow("for (int i = 0; i < list.size(); i += BATCH_INSERT_MAX_ROWS)")
+                .addStatement("rows += $N(list.subList(i, Math.min(i + BATCH_INSERT_MAX_ROWS, list.size())))",
+                        chunkMethodName)
+                .endControlFlow()
+                .addStatement("return rows")
+                .build();
+
+        MethodSpec batchUpsertChunk = MethodSpec.methodBuilder(chunkMethodName)
+                .addModifiers(Modifier.PUBLIC, Modifier.ABSTRACT)
+                .addParameter(ParameterSpec.builder(listType, "list")
+                        .addAnnotation(AnnotationSpec.builder(Param.class).addMember("value", "\"list\"").build())
+                        .build())
+                .returns(Integer.class)
+                .build();
+
+        methodSpecs.add(upsert);
+        methodSpecs.add(batchUpsert);
+        methodSpecs.add(batchUpsertChunk);
+    }
+
+    /**
+     * 多行insert：batchInsertXxxChunk对应一条insert ... values (...),(...)语句，
+     * batchInsertXxx按BATCH_INSERT_MAX_ROWS分批调用，自增列不插入
+     */
+    private void addBatchInsert(List<MethodSpec> methodSpecs, String entityName, ClassName entityClassName) {
+        ParameterizedTypeName listType = ParameterizedTypeName.get(ClassName.get(List.class), entityClassName);
+        String chunkMethodName = "batchInsert" + entityName + "Chunk";
+
+        MethodSpec batchInsert = MethodSpec.methodBuilder("batchInsert" + entityName)
+                .addModifiers(Modifier.PUBLIC, Modifier.DEFAULT)
+                .addJavadoc("Inserts at most BATCH_INSERT_MAX_ROWS rows per statement, null fields are inserted as DEFAULT\n"
+                        + "(the column default), the same as insert$L\n", entityName)
+                .addParameter(listType, "list")
+                .returns(Integer.class)
+                .addStatement("int rows = 0")
+                .beginControlFlow("for (int i = 0; i < list.size(); i += BATCH_INSERT_MAX_ROWS)")
+                .addStatement("rows += $N(list.subList(i, Math.min(i + BATCH_INSERT_MAX_ROWS, list.size())))",
+                        chunkMethodName)
+                .endControlFlow()
+                .addStatement("return rows")
+                .build();
+
+        MethodSpec batchInsertChunk = MethodSpec.methodBuilder(chunkMethodName)
+                .addModifiers(Modifier.PUBLIC, Modifier.ABSTRACT)
+                .addParameter(ParameterSpec.builder(listType, "list")
+                        .addAnnotation(AnnotationSpec.builder(Param.class).addMember("value", "\"list\"").build())
+                        .build())
+                .returns(Integer.class)
+                .build();
+
+        methodSpecs.add(batchInsert);
+        methodSpecs.add(batchInsertChunk);
+    }
+
     /**
      * simpleClassName:TypeSpec
      */
     public Map<String, TypeSpec> generateEntity(Set<Table> tables) {
 
+        long start = System.nanoTime();
         Map<String, TypeSpec> typeSpecs = buildEntities(tables);
-        persistTypeSpec(this.configProperties.getEntityGenPkg(), typeSpecs.values());
+        this.configProperties.getMetrics().addPhase("entity", System.nanoTime() - start);
+        persistTypeSpecTimed(this.configProperties.getEntityGenPkg(), typeSpecs.values());
         return typeSpecs;
     }
 
-    private Map<String, TypeSpec> buildEntities(Set<Table> tables) {
-        Map<String, TypeSpec> entities = Maps.newHashMap();
-        tables.forEach(t -> entities.putAll(buildEntityForTable(t)));
-        return entities;
+    public Map<String, TypeSpec> buildEntities(Set<Table> tables) {
+        GenMetrics metrics = this.configProperties.getMetrics();
+        return GenExecutor.map(this.configProperties, tables,
+                t -> metrics.timeTable(t, "entity", () -> buildEntityForTable(t)));
     }
 
     private Map<String, TypeSpec> buildEntityForTable(Table table) {
@@ -547,9 +1209,9 @@ public class JavapoetGenerator implements CodeGenerator {
                 .addAnnotation(NoArgsConstructor.class)
                 .addAnnotation(AllArgsConstructor.class)
                 .addAnnotation(ToString.class)
-                .addJavadoc(JAVA_DOC + LocalDateTime.now());
+                .addJavadoc(JAVA_DOC + genStamp(this.configProperties, table));
 
-        Set<FieldSpec> fieldSpecs = new HashSet<>();
+        List<FieldSpec> fieldSpecs = new ArrayList<>();
         Set<TableColumn> columns = table.getColumns();
         for (TableColumn column : columns) {
             boolean isPk = table.getPrimaryKeyColumn().getColumnName().equals(column.getColumnName());
@@ -1,10 +1,8 @@
 package codegen.gen.xml;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.nio.file.Files;
 import java.nio.file.Paths;
-import java.time.LocalDateTime;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -18,7 +16,11 @@ import org.jdom2.Element;
 import org.jdom2.output.Format;
 import org.jdom2.output.XMLOutputter;
 import codegen.ConfigProperties;
+import codegen.TableProperties;
 import codegen.gen.CommonUtil;
+import codegen.gen.GenExecutor;
+import codegen.gen.GenMetrics;
+import codegen.gen.UpsertDialect;
 import codegen.table.Table;
 import codegen.table.TableColumn;
 import edu.emory.mathcs.backport.java.util.Collections;
@@ -32,29 +34,73 @@ public class JDomXMLGenerator implements XMLGenerator{
 
     ConfigProperties configProperties;
 
+    // 为null时不生成upsert
+    UpsertDialect upsertDialect;
+
+    @Override
+    public boolean supports(ConfigProperties configProperties) {
+        Integer xmlGenType = configProperties.getXmlGenType();
+        return Objects.isNull(xmlGenType) || xmlGenType == 0;
+    }
+
     @Override
     public void generate(ConfigProperties configProperties, Set<Table> tables) throws MojoExecutionException {
         if(Objects.isNull(tables) || tables.size()==0){
             return;
         }
-        this.configProperties = configProperties;
-
-        Map<String,Document> xmlList = new HashMap<>();
+        prepare(configProperties);
 
-        tables.forEach(table-> xmlList.putAll(createXMLForTable(table)));
+        GenMetrics metrics = configProperties.getMetrics();
+        long start = System.nanoTime();
+        Map<String,Document> xmlList = GenExecutor.map(configProperties, tables,
+                table -> metrics.timeTable(table, "mapperXml", () -> createXMLForTable(table)));
+        metrics.addPhase("mapperXml", System.nanoTime() - start);
 
+        start = System.nanoTime();
         persistXML(xmlList);
+        metrics.addPhase("writeXml", System.nanoTime() - start);
+
+
+    }
+
+    @Override
+    public void prepare(ConfigProperties configProperties) throws MojoExecutionException {
+        this.configProperties = configProperties;
+        this.upsertDialect = UpsertDialect.of(configProperties);
+    }
 
+    @Override
+    public void generate(ConfigProperties configProperties, Table table) {
+        GenMetrics metrics = configProperties.getMetrics();
+        Map<String, Document> xml = metrics.timeTable(table, "mapperXml", () -> createXMLForTable(table));
+        metrics.timeTable(table, "writeXml", () -> {
+            persistXML(xml);
+            return null;
+        });
+    }
 
+    @Override
+    public void remove(ConfigProperties configProperties, Table table) throws MojoExecutionException {
+        String xmlName = CommonUtil.mapUnderScoreToUpperCamelCase(table.getName()) + "Mapper";
+        try {
+            CommonUtil.delete(configProperties, Paths.get(configProperties.getMapperXmlGenAbsPath(), xmlName + ".xml"));
+        } catch (IOException e) {
+            throw new MojoExecutionException("Failed to remove generated xml of " + table.getName() + ": " + e);
+        }
     }
 
-    private void persistXML(Map<String,Document> name2XML) {
-        XMLOutputter out = new XMLOutputter() ;
-        Format format = Format.getPrettyFormat();
-        out.setFormat(format);
-        name2XML.forEach((name, xml) -> {
+    public void persistXML(Map<String,Document> name2XML) {
+        GenExecutor.forEach(configProperties, name2XML.entrySet(), entry -> {
+            String name = entry.getKey();
+            Document xml = entry.getValue();
+            XMLOutputter out = new XMLOutputter() ;
+            Format format = Format.getPrettyFormat();
+            out.setFormat(format);
             try {
-                out.output(xml, Files.newOutputStream(Paths.get(configProperties.getMapperXmlGenAbsPath()+ (CommonUtil.isWin()?"\\":"/"+name+".xml"))));
+                ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+                out.output(xml, bytes);
+                CommonUtil.persist(configProperties, Paths.get(configProperties.getMapperXmlGenAbsPath(), name + ".xml"),
+                        bytes.toByteArray());
             } catch (IOException e) {
                 throw new RuntimeException(e);
             }
@@ -72,7 +118,7 @@ public class JDomXMLGenerator implements XMLGenerator{
                 "http://mybatis.org/dtd/mybatis-3-mapper.dtd");
         xml.setDocType(mybatisDocType);
 
-        Comment comment = new Comment("Auto generated by codegen-maven-plugin @author:baotingyu " + LocalDateTime.now());
+        Comment comment = new Comment(CommonUtil.JAVA_DOC + CommonUtil.genStamp(configProperties, table));
         xml.addContent(comment);
 
         Element mapper = new Element("mapper");
@@ -83,24 +129,59 @@ public class JDomXMLGenerator implements XMLGenerator{
         Element sqlWhereClause = XmlElementUtil.exampleWhereClause();
         mapper.addContent(sqlWhereClause);
 
+        Element sqlParamWhereClause = XmlElementUtil.paramExampleWhereClause();
+        mapper.addContent(sqlParamWhereClause);
+
+        Element baseColumnList = XmlElementUtil.baseColumnList(table);
+        mapper.addContent(baseColumnList);
+
         Element resultMap = resultMap(table);
         mapper.addContent(resultMap);
 
         Element insert = insert(table);
         mapper.addContent(insert);
 
-//        Element batchInsert = batchInsert(table);
-//        mapper.addContent(batchInsert);
+        Element batchInsert = batchInsert(table);
+        if (Objects.nonNull(batchInsert)) {
+            mapper.addContent(batchInsert);
+        }
+
+        if (upsertDialect != null) {
+            mapper.addContent(upsert(table));
+            mapper.addContent(batchUpsert(table));
+        }
 
         Element update =  update(table);
         mapper.addContent(update);
 
+        Element batchUpdate = batchUpdate(table);
+        if (batchUpdate != null) {
+            mapper.addContent(batchUpdate);
+        }
+
         Element count = count(table);
         mapper.addContent(count);
 
         Element select = select(table);
         mapper.addContent(select);
 
+        Element selectCursor = selectCursor(table);
+        mapper.addContent(selectCursor);
+
+        Element selectByPKey = selectByPKey(table);
+        mapper.addContent(selectByPKey);
+
+        Element selectByPKeys = selectByPKeys(table);
+        mapper.addContent(selectByPKeys);
+
+        Element selectAfter = selectAfter(table);
+        mapper.addContent(selectAfter);
+
+        // 按索引的第一列(主键除外)查询
+        table.getColumns().stream()
+                .filter(column -> column.isLeadingIndexed() && !CommonUtil.isPrimaryKey(table, column))
+                .forEach(column -> mapper.addContent(selectByColumn(table, column, CommonUtil.indexFinderName(table, column))));
+
 
         Element delete = delete(table);
         mapper.addContent(delete);
@@ -122,13 +203,27 @@ public class JDomXMLGenerator implements XMLGenerator{
 
 
     private Element select(Table table) {
-        Element select = new Element("select");
+        return select(table, "select"+CommonUtil.mapUnderScoreToUpperCamelCase(table.getName())+"s");
+    }
 
-        select.setAttribute("id","select"+CommonUtil.mapUnderScoreToUpperCamelCase(table.getName())+"s");
-        select.setAttribute("resultMap","BaseResultMap");
+    /**
+     * 与selectXxxs相同的查询，mapper接口中返回Cursor，按表配置设置fetchSize(未配置时不设置)/resultSetType
+     */
+    private Element selectCursor(Table table) {
+        TableProperties tableProperties = configProperties.tableProperties(table.getName());
+        Element select = select(table, "select"+CommonUtil.mapUnderScoreToUpperCamelCase(table.getName())+"sCursor");
+        if (Objects.nonNull(tableProperties.getCursorFetchSize())) {
+            select.setAttribute("fetchSize", String.valueOf(tableProperties.getCursorFetchSize()));
+        }
+        select.setAttribute("resultSetType", tableProperties.getCursorResultSetType());
+        return select;
+    }
 
-        List<String> columnNames = table.getColumns().stream().map(TableColumn::getColumnName).collect(Collectors.toList());
+    private Element select(Table table, String id) {
+        Element select = new Element("select");
 
+        select.setAttribute("id",id);
+        select.setAttribute("resultMap","BaseResultMap");
 
         Element distinctIf = new Element("if");
         distinctIf.setAttribute("test","distinct");
@@ -136,7 +231,8 @@ public class JDomXMLGenerator implements XMLGenerator{
 
         select.addContent("select ");
         select.addContent(distinctIf);
-        select.addContent(String.join(",",columnNames)+" from "+table.getName());
+        select.addContent(XmlElementUtil.selectedColumnsChoose(null));
+        select.addContent(" from "+table.getName());
 
         Element orderIf = new Element("if");
         orderIf.setAttribute("test","orderByClause != null");
@@ -163,6 +259,76 @@ public class JDomXMLGenerator implements XMLGenerator{
         return select;
     }
 
+    private Element selectByPKey(Table table) {
+        TableColumn pkColumn = table.getPrimaryKeyColumn();
+        return selectByColumn(table, pkColumn, "select"+CommonUtil.mapUnderScoreToUpperCamelCase(table.getName())+"By"+
+                CommonUtil.mapUnderScoreToUpperCamelCase(pkColumn.getColumnName()));
+    }
+
+    private Element selectByColumn(Table table, TableColumn column, String id) {
+        String columnName = column.getColumnName();
+        Element select = new Element("select");
+        select.setAttribute("id",id);
+        select.setAttribute("resultMap","BaseResultMap");
+
+        select.addContent("select ");
+        select.addContent(XmlElementUtil.baseColumnListRef());
+        select.addContent(" from "+table.getName()+
+                " where "+columnName+" = #{"+CommonUtil.mapUnderScoreToLowerCamelCase(columnName)+"}");
+        return select;
+    }
+
+    /**
+     * 按主键批量查询：where pk in (...)，分批由mapper接口的default方法完成
+     */
+    private Element selectByPKeys(Table table) {
+        String pkColumnName = table.getPrimaryKeyColumn().getColumnName();
+        Element select = new Element("select");
+        select.setAttribute("id","select"+CommonUtil.mapUnderScoreToUpperCamelCase(table.getName())+"sBy"+
+                CommonUtil.mapUnderScoreToUpperCamelCase(pkColumnName)+"sChunk");
+        select.setAttribute("resultMap","BaseResultMap");
+
+        select.addContent("select ");
+        select.addContent(XmlElementUtil.baseColumnListRef());
+        select.addContent(" from "+table.getName()+" where "+pkColumnName+" in");
+
+        Element foreach = new Element("foreach");
+        foreach.setAttribute("collection","pks");
+        foreach.setAttribute("item","pk");
+        foreach.setAttribute("open","(");
+        foreach.setAttribute("separator",",");
+        foreach.setAttribute("close",")");
+        foreach.addContent("#{pk}");
+        select.addContent(foreach);
+        return select;
+    }
+
+    /**
+     * 按主键的keyset分页：where pk > #{last} order by pk limit #{limit}
+     */
+    private Element selectAfter(Table table) {
+        Element select = new Element("select");
+        select.setAttribute("id","select"+CommonUtil.mapUnderScoreToUpperCamelCase(table.getName())+"sAfter");
+        select.setAttribute("resultMap","BaseResultMap");
+
+        String pkColumnName = table.getPrimaryKeyColumn().getColumnName();
+
+        select.addContent("select ");
+        select.addContent(XmlElementUtil.selectedColumnsChoose("example"));
+        select.addContent(" from "+table.getName());
+
+        Element where = new Element("where");
+        Element lastIf = new Element("if");
+        lastIf.setAttribute("test","last != null");
+        lastIf.addContent(pkColumnName+" > #{last}");
+        where.addContent(lastIf);
+        where.addContent(XmlElementUtil.paramExampleWhereClauseSqlRef());
+        select.addContent(where);
+
+        select.addContent("order by "+pkColumnName+" limit #{limit}");
+        return select;
+    }
+
     private Element resultMap(Table table){
         Element resultMap = new Element("resultMap");
         resultMap.setAttribute("id","BaseResultMap");
@@ -216,6 +382,87 @@ public class JDomXMLGenerator implements XMLGenerator{
         return update;
     }
 
+    /**
+     * 按主键的多行update，一条语句更新list中的全部行，值为null的字段不更新；没有可更新的列时返回null
+     */
+    private Element batchUpdate(Table table) {
+        List<String> columnNames = XmlElementUtil.batchUpdateColumnNames(table);
+        if (columnNames.isEmpty()) {
+            return null;
+        }
+        String pkColumnName = table.getPrimaryKeyColumn().getColumnName();
+        Element update = new Element("update");
+        update.setAttribute("id","batchUpdate"+CommonUtil.mapUnderScoreToUpperCamelCase(table.getName())+"By"+
+                CommonUtil.mapUnderScoreToUpperCamelCase(pkColumnName)+"Chunk");
+        update.setAttribute("parameterType","java.util.List");
+        update.addContent(" update "+table.getName());
+        update.addContent(XmlElementUtil.batchUpdateSetTrim(pkColumnName,columnNames));
+        update.addContent(" where "+pkColumnName+" in ");
+        update.addContent(XmlElementUtil.batchUpdatePkInForeach(pkColumnName));
+        return update;
+    }
+
+    /**
+     * 多行insert，不插入自增列；没有可插入的列时返回null
+     */
+    private Element batchInsert(Table table) {
+        List<String> columnNames = XmlElementUtil.batchInsertColumnNames(table);
+        if (columnNames.isEmpty()) {
+            return null;
+        }
+        Element insert = new Element("insert");
+        insert.setAttribute("id","batchInsert"+CommonUtil.mapUnderScoreToUpperCamelCase(table.getName())+"Chunk");
+        insert.setAttribute("parameterType","java.util.List");
+        insert.addContent(" insert into "+table.getName()+" ("+String.join(",",columnNames)+") values ");
+        insert.addContent(XmlElementUtil.batchInsertValuesForeach(columnNames));
+        return insert;
+    }
+
+    /**
+     * insert ... values (...) + 方言的冲突处理子句，插入全部列(含主键)，null字段插入DEFAULT；
+     * 冲突时只更新非null字段，最后的key = key保证全部字段为null时子句仍然合法
+     */
+    private Element upsert(Table table) {
+        String param = CommonUtil.mapUnderScoreToLowerCamelCase(table.getName());
+        List<String> columnNames = table.getColumns().stream().map(TableColumn::getColumnName).collect(Collectors.toList());
+        List<String> keyColumnNames = XmlElementUtil.upsertKeyColumnNames(table);
+        Element insert = new Element("insert");
+        insert.setAttribute("id","upsert"+CommonUtil.mapUnderScoreToUpperCamelCase(table.getName()));
+        insert.addContent(" insert into "+table.getName()+" ("+String.join(",",columnNames)+") values ");
+        insert.addContent(XmlElementUtil.rowValuesTrim(param,columnNames));
+        List<String> updateColumnNames = XmlElementUtil.upsertUpdateColumnNames(table);
+        if (updateColumnNames.isEmpty()) {
+            // 只有键列的表：子句作为一个文本节点输出，相邻的文本节点格式化时会直接拼接
+            insert.addContent(onConflict(table));
+            return insert;
+        }
+        insert.addContent(upsertDialect.onConflictUpdate(table,keyColumnNames));
+        updateColumnNames.forEach(columnName -> {
+            Element ifElement = new Element("if");
+            ifElement.setAttribute("test",param+"."+CommonUtil.mapUnderScoreToLowerCamelCase(columnName)+"!=null");
+            ifElement.addContent(upsertDialect.assignment(columnName)+",");
+            insert.addContent(ifElement);
+        });
+        insert.addContent(XmlElementUtil.batchUpdateNoop(keyColumnNames.get(0)));
+        return insert;
+    }
+
+    private Element batchUpsert(Table table) {
+        List<String> columnNames = table.getColumns().stream().map(TableColumn::getColumnName).collect(Collectors.toList());
+        Element insert = new Element("insert");
+        insert.setAttribute("id","batchUpsert"+CommonUtil.mapUnderScoreToUpperCamelCase(table.getName())+"Chunk");
+        insert.setAttribute("parameterType","java.util.List");
+        insert.addContent(" insert into "+table.getName()+" ("+String.join(",",columnNames)+") values ");
+        insert.addContent(XmlElementUtil.batchInsertValuesForeach(columnNames));
+        insert.addContent(onConflict(table));
+        return insert;
+    }
+
+    private String onConflict(Table table) {
+        return upsertDialect.onConflict(table, XmlElementUtil.upsertKeyColumnNames(table),
+                XmlElementUtil.upsertUpdateColumnNames(table));
+    }
+
     private Element insert(Table table){
         Element insert = new Element("insert");
         insert.setAttribute("id","insert"+CommonUtil.mapUnderScoreToUpperCamelCase(table.getName()));
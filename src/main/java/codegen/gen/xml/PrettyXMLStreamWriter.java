@@ -0,0 +1,93 @@
+package codegen.gen.xml;
+
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+
+/**
+ * 在XMLStreamWriter上按JDOM PrettyFormat的排版(两空格缩进、\r\n换行、文本去首尾空白)直接输出，
+ * 混合内容中的文本单独成行，只含文本的元素写在一行
+ *
+ * @date: 2026/10/17
+ **/
+class PrettyXMLStreamWriter {
+
+    static final String LINE_SEPARATOR = "\r\n";
+
+    private static final String INDENT = "  ";
+
+    private final XMLStreamWriter writer;
+
+    private int depth;
+
+    PrettyXMLStreamWriter(XMLStreamWriter writer) {
+        this.writer = writer;
+    }
+
+    public void startDocument(String docType) throws XMLStreamException {
+        writer.writeStartDocument("UTF-8", "1.0");
+        newLine();
+        writer.writeDTD(docType);
+    }
+
+    public void comment(String comment) throws XMLStreamException {
+        newLine();
+        writer.writeComment(comment);
+    }
+
+    /**
+     * 开始一个含子元素的元素，attributes为name,value成对出现
+     */
+    public void start(String name, String... attributes) throws XMLStreamException {
+        newLine();
+        writer.writeStartElement(name);
+        attributes(attributes);
+        depth++;
+    }
+
+    public void end() throws XMLStreamException {
+        depth--;
+        newLine();
+        writer.writeEndElement();
+    }
+
+    public void empty(String name, String... attributes) throws XMLStreamException {
+        newLine();
+        writer.writeEmptyElement(name);
+        attributes(attributes);
+    }
+
+    /**
+     * 只含文本的元素
+     */
+    public void leaf(String name, String text, String... attributes) throws XMLStreamException {
+        newLine();
+        writer.writeStartElement(name);
+        attributes(attributes);
+        writer.writeCharacters(text.trim());
+        writer.writeEndElement();
+    }
+
+    public void text(String text) throws XMLStreamException {
+        newLine();
+        writer.writeCharacters(text.trim());
+    }
+
+    public void endDocument() throws XMLStreamException {
+        writer.writeEndDocument();
+        writer.flush();
+        writer.close();
+    }
+
+    private void attributes(String... attributes) throws XMLStreamException {
+        for (int i = 0; i + 1 < attributes.length; i += 2) {
+            writer.writeAttribute(attributes[i], attributes[i + 1]);
+        }
+    }
+
+    private void newLine() throws XMLStreamException {
+        writer.writeCharacters(LINE_SEPARATOR);
+        for (int i = 0; i < depth; i++) {
+            writer.writeCharacters(INDENT);
+        }
+    }
+}
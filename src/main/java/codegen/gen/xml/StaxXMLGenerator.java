@@ -0,0 +1,484 @@
+package codegen.gen.xml;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import org.apache.maven.plugin.MojoExecutionException;
+import codegen.ConfigProperties;
+import codegen.TableProperties;
+import codegen.gen.CommonUtil;
+import codegen.gen.GenExecutor;
+import codegen.gen.GenMetrics;
+import codegen.gen.UpsertDialect;
+import codegen.table.Table;
+import codegen.table.TableColumn;
+
+/**
+ * 用XMLStreamWriter直接输出mapper xml，不构建JDOM树，除空元素写作 <a/> 外与JDomXMLGenerator的输出一致
+ *
+ * @date: 2026/10/17
+ **/
+public class StaxXMLGenerator implements XMLGenerator {
+
+    private static final String MAPPER_DOC_TYPE = "<!DOCTYPE mapper PUBLIC \"-//mybatis.org//DTD Mapper 3.0//EN\" "
+            + "\"http://mybatis.org/dtd/mybatis-3-mapper.dtd\">";
+
+    // XMLOutputFactory不保证线程安全，每个生成线程一个
+    private static final ThreadLocal<XMLOutputFactory> OUTPUT_FACTORY =
+            ThreadLocal.withInitial(XMLOutputFactory::newInstance);
+
+    ConfigProperties configProperties;
+
+    // 为null时不生成upsert
+    UpsertDialect upsertDialect;
+
+    @Override
+    public boolean supports(ConfigProperties configProperties) {
+        return Objects.equals(configProperties.getXmlGenType(), 1);
+    }
+
+    @Override
+    public void generate(ConfigProperties configProperties, Set<Table> tables) throws MojoExecutionException {
+        if(Objects.isNull(tables) || tables.size()==0){
+            return;
+        }
+        prepare(configProperties);
+
+        GenMetrics metrics = configProperties.getMetrics();
+        long start = System.nanoTime();
+        Map<String, byte[]> xmlList = GenExecutor.map(configProperties, tables,
+                table -> metrics.timeTable(table, "mapperXml", () -> createXMLForTable(table)));
+        metrics.addPhase("mapperXml", System.nanoTime() - start);
+
+        start = System.nanoTime();
+        persistXML(xmlList);
+        metrics.addPhase("writeXml", System.nanoTime() - start);
+    }
+
+    @Override
+    public void prepare(ConfigProperties configProperties) throws MojoExecutionException {
+        this.configProperties = configProperties;
+        this.upsertDialect = UpsertDialect.of(configProperties);
+    }
+
+    @Override
+    public void generate(ConfigProperties configProperties, Table table) {
+        GenMetrics metrics = configProperties.getMetrics();
+        Map<String, byte[]> xml = metrics.timeTable(table, "mapperXml", () -> createXMLForTable(table));
+        metrics.timeTable(table, "writeXml", () -> {
+            persistXML(xml);
+            return null;
+        });
+    }
+
+    @Override
+    public void remove(ConfigProperties configProperties, Table table) throws MojoExecutionException {
+        String xmlName = CommonUtil.mapUnderScoreToUpperCamelCase(table.getName()) + "Mapper";
+        try {
+            CommonUtil.delete(configProperties, Paths.get(configProperties.getMapperXmlGenAbsPath(), xmlName + ".xml"));
+        } catch (IOException e) {
+            throw new MojoExecutionException("Failed to remove generated xml of " + table.getName() + ": " + e);
+        }
+    }
+
+    public void persistXML(Map<String, byte[]> name2XML) {
+        GenExecutor.forEach(configProperties, name2XML.entrySet(), entry -> {
+            try {
+                CommonUtil.persist(configProperties,
+                        Paths.get(configProperties.getMapperXmlGenAbsPath(), entry.getKey() + ".xml"),
+                        entry.getValue());
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        });
+    }
+
+    public Map<String, byte[]> createXMLForTable(Table table) {
+        String xmlName = CommonUtil.mapUnderScoreToUpperCamelCase(table.getName()) + "Mapper";
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(4096);
+        try {
+            PrettyXMLStreamWriter xml = new PrettyXMLStreamWriter(
+                    OUTPUT_FACTORY.get().createXMLStreamWriter(bytes, StandardCharsets.UTF_8.name()));
+            xml.startDocument(MAPPER_DOC_TYPE);
+            xml.comment(CommonUtil.JAVA_DOC + CommonUtil.genStamp(configProperties, table));
+
+            xml.start("mapper", "namespace", configProperties.getMapperInterfaceGenPkg() + "." + xmlName);
+            exampleWhereClause(xml);
+            paramExampleWhereClause(xml);
+            baseColumnList(xml, table);
+            resultMap(xml, table);
+            insert(xml, table);
+            batchInsert(xml, table);
+            if (upsertDialect != null) {
+                upsert(xml, table);
+                batchUpsert(xml, table);
+            }
+            update(xml, table);
+            batchUpdate(xml, table);
+            count(xml, table);
+            select(xml, table);
+            selectCursor(xml, table);
+            selectByPKey(xml, table);
+            selectByPKeys(xml, table);
+            selectAfter(xml, table);
+            selectByIndexes(xml, table);
+            delete(xml, table);
+            xml.end();
+
+            xml.endDocument();
+            bytes.write(PrettyXMLStreamWriter.LINE_SEPARATOR.getBytes(StandardCharsets.UTF_8));
+        } catch (XMLStreamException | IOException e) {
+            throw new RuntimeException(e);
+        }
+        return Collections.singletonMap(xmlName, bytes.toByteArray());
+    }
+
+    private void exampleWhereClause(PrettyXMLStreamWriter xml) throws XMLStreamException {
+        xml.start("sql", "id", "Example_Where_Clause");
+        xml.start("where");
+        oredCriteriaForeach(xml, "oredCriteria");
+        xml.end();
+        xml.end();
+    }
+
+    private void paramExampleWhereClause(PrettyXMLStreamWriter xml) throws XMLStreamException {
+        xml.start("sql", "id", "Param_Example_Where_Clause");
+        xml.start("trim", "prefix", "and (", "suffix", ")");
+        oredCriteriaForeach(xml, "example.oredCriteria");
+        xml.end();
+        xml.end();
+    }
+
+    private void oredCriteriaForeach(PrettyXMLStreamWriter xml, String collection) throws XMLStreamException {
+        xml.start("foreach", "collection", collection, "item", "criteria", "separator", "or");
+        xml.start("if", "test", "criteria.valid");
+        xml.start("trim", "prefix", "(", "prefixOverrides", "and", "suffix", ")");
+        xml.start("foreach", "collection", "criteria.criteria", "item", "criterion");
+        xml.start("choose");
+        xml.leaf("when", "and ${criterion.condition}", "test", "criterion.noValue");
+        xml.leaf("when", "and ${criterion.condition} #{criterion.value}", "test", "criterion.singleValue");
+        xml.leaf("when", "and ${criterion.condition} #{criterion.value} and #{criterion.secondValue}",
+                "test", "criterion.betweenValue");
+        xml.start("when", "test", "criterion.listValue");
+        xml.text("and ${criterion.condition}");
+        xml.leaf("foreach", "#{listItem}", "open", "(", "separator", ",", "close", ")",
+                "collection", "criterion.value", "item", "listItem");
+        xml.end();
+        xml.leaf("otherwise", "false");
+        xml.end();
+        xml.end();
+        xml.end();
+        xml.end();
+        xml.end();
+    }
+
+    private void exampleWhereClauseSqlRef(PrettyXMLStreamWriter xml) throws XMLStreamException {
+        xml.start("if", "test", "_parameter != null");
+        xml.empty("include", "refid", "Example_Where_Clause");
+        xml.end();
+    }
+
+    private void resultMap(PrettyXMLStreamWriter xml, Table table) throws XMLStreamException {
+        xml.start("resultMap", "id", "BaseResultMap",
+                "type", configProperties.getEntityGenPkg() + "." + CommonUtil.mapUnderScoreToUpperCamelCase(table.getName()));
+
+        TableColumn pkColumn = table.getPrimaryKeyColumn();
+        if(Objects.nonNull(pkColumn)){
+            xml.empty("id", "column", pkColumn.getColumnName(),
+                    "property", CommonUtil.mapUnderScoreToLowerCamelCase(pkColumn.getColumnName()));
+        }
+        for (TableColumn c : table.getColumns()) {
+            if(Objects.nonNull(pkColumn) && c.equals(pkColumn)){
+                continue;
+            }
+            xml.empty("result", "column", c.getColumnName(),
+                    "property", CommonUtil.mapUnderScoreToLowerCamelCase(c.getColumnName()));
+        }
+        xml.end();
+    }
+
+    private void insert(PrettyXMLStreamWriter xml, Table table) throws XMLStreamException {
+        String param = CommonUtil.mapUnderScoreToLowerCamelCase(table.getName());
+        List<String> columnNames = columnNames(table);
+
+        xml.start("insert", "id", "insert" + CommonUtil.mapUnderScoreToUpperCamelCase(table.getName()),
+                "parameterType", configProperties.getEntityGenPkg() + "." + CommonUtil.mapUnderScoreToUpperCamelCase(table.getName()));
+        xml.text(" insert into " + table.getName());
+
+        xml.start("trim", "prefix", "(", "suffix", ")", "suffixOverrides", ",");
+        for (String columnName : columnNames) {
+            xml.leaf("if", columnName + ",",
+                    "test", param + "." + CommonUtil.mapUnderScoreToLowerCamelCase(columnName) + "!=null");
+        }
+        xml.end();
+
+        xml.text(" values ");
+
+        xml.start("trim", "prefix", "(", "suffix", ")", "suffixOverrides", ",");
+        for (String columnName : columnNames) {
+            String field = param + "." + CommonUtil.mapUnderScoreToLowerCamelCase(columnName);
+            xml.leaf("if", "#{" + field + "},", "test", field + "!=null");
+        }
+        xml.end();
+
+        xml.end();
+    }
+
+    private void batchInsert(PrettyXMLStreamWriter xml, Table table) throws XMLStreamException {
+        List<String> columnNames = XmlElementUtil.batchInsertColumnNames(table);
+        if (columnNames.isEmpty()) {
+            return;
+        }
+        xml.start("insert", "id", "batchInsert" + CommonUtil.mapUnderScoreToUpperCamelCase(table.getName()) + "Chunk",
+                "parameterType", "java.util.List");
+        xml.text(" insert into " + table.getName() + " (" + String.join(",", columnNames) + ") values ");
+        xml.start("foreach", "collection", "list", "item", "item", "separator", ",");
+        rowValues(xml, "item", columnNames);
+        xml.end();
+        xml.end();
+    }
+
+    /**
+     * 与{@link XmlElementUtil#rowValuesTrim}相同，null字段插入DEFAULT
+     */
+    private void rowValues(PrettyXMLStreamWriter xml, String param, List<String> columnNames) throws XMLStreamException {
+        xml.start("trim", "prefix", "(", "suffix", ")", "suffixOverrides", ",");
+        for (String columnName : columnNames) {
+            String field = param + "." + CommonUtil.mapUnderScoreToLowerCamelCase(columnName);
+            xml.start("choose");
+            xml.leaf("when", "#{" + field + "},", "test", field + "!=null");
+            xml.leaf("otherwise", "DEFAULT,");
+            xml.end();
+        }
+        xml.end();
+    }
+
+    private void upsert(PrettyXMLStreamWriter xml, Table table) throws XMLStreamException {
+        String param = CommonUtil.mapUnderScoreToLowerCamelCase(table.getName());
+        List<String> columnNames = columnNames(table);
+        List<String> keyColumnNames = XmlElementUtil.upsertKeyColumnNames(table);
+        xml.start("insert", "id", "upsert" + CommonUtil.mapUnderScoreToUpperCamelCase(table.getName()));
+        xml.text(" insert into " + table.getName() + " (" + String.join(",", columnNames) + ") values ");
+        rowValues(xml, param, columnNames);
+        List<String> updateColumnNames = XmlElementUtil.upsertUpdateColumnNames(table);
+        if (updateColumnNames.isEmpty()) {
+            // 与JDomXMLGenerator相同，只有键列的表子句作为一个文本节点输出
+            xml.text(onConflict(table));
+            xml.end();
+            return;
+        }
+        xml.text(upsertDialect.onConflictUpdate(table, keyColumnNames));
+        for (String columnName : updateColumnNames) {
+            xml.leaf("if", upsertDialect.assignment(columnName) + ",",
+                    "test", param + "." + CommonUtil.mapUnderScoreToLowerCamelCase(columnName) + "!=null");
+        }
+        xml.text(XmlElementUtil.batchUpdateNoop(keyColumnNames.get(0)));
+        xml.end();
+    }
+
+    private void batchUpsert(PrettyXMLStreamWriter xml, Table table) throws XMLStreamException {
+        List<String> columnNames = columnNames(table);
+        xml.start("insert", "id", "batchUpsert" + CommonUtil.mapUnderScoreToUpperCamelCase(table.getName()) + "Chunk",
+                "parameterType", "java.util.List");
+        xml.text(" insert into " + table.getName() + " (" + String.join(",", columnNames) + ") values ");
+        xml.start("foreach", "collection", "list", "item", "item", "separator", ",");
+        rowValues(xml, "item", columnNames);
+        xml.end();
+        xml.text(onConflict(table));
+        xml.end();
+    }
+
+    private String onConflict(Table table) {
+        return upsertDialect.onConflict(table, XmlElementUtil.upsertKeyColumnNames(table),
+                XmlElementUtil.upsertUpdateColumnNames(table));
+    }
+
+    private void update(PrettyXMLStreamWriter xml, Table table) throws XMLStreamException {
+        String param = CommonUtil.mapUnderScoreToLowerCamelCase(table.getName());
+        String pkColumnName = table.getPrimaryKeyColumn().getColumnName();
+
+        xml.start("update", "id", "update" + CommonUtil.mapUnderScoreToUpperCamelCase(table.getName()) + "By"
+                + CommonUtil.mapUnderScoreToUpperCamelCase(pkColumnName));
+        xml.text(" update " + table.getName());
+
+        xml.start("set");
+        for (String columnName : columnNames(table)) {
+            String field = CommonUtil.mapUnderScoreToLowerCamelCase(columnName);
+            xml.leaf("if", columnName + "= #{" + param + "." + field + "},", "test", param + "." + field + "!=null");
+        }
+        xml.end();
+
+        xml.text(" where " + pkColumnName + " = #{" + param + "."
+                + CommonUtil.mapUnderScoreToLowerCamelCase(pkColumnName) + "}");
+        xml.end();
+    }
+
+    private void batchUpdate(PrettyXMLStreamWriter xml, Table table) throws XMLStreamException {
+        List<String> columnNames = XmlElementUtil.batchUpdateColumnNames(table);
+        if (columnNames.isEmpty()) {
+            return;
+        }
+        String pkColumnName = table.getPrimaryKeyColumn().getColumnName();
+        xml.start("update", "id", "batchUpdate" + CommonUtil.mapUnderScoreToUpperCamelCase(table.getName()) + "By"
+                        + CommonUtil.mapUnderScoreToUpperCamelCase(pkColumnName) + "Chunk",
+                "parameterType", "java.util.List");
+        xml.text(" update " + table.getName());
+        xml.start("trim", "prefix", "set", "suffixOverrides", ",");
+        for (String columnName : columnNames) {
+            xml.start("trim", "prefix", columnName + " = case " + pkColumnName, "suffix", "else " + columnName + " end,");
+            xml.start("foreach", "collection", "list", "item", "item");
+            xml.leaf("if", XmlElementUtil.batchUpdateWhenThen(pkColumnName, columnName),
+                    "test", "item." + CommonUtil.mapUnderScoreToLowerCamelCase(columnName) + "!=null");
+            xml.end();
+            xml.end();
+        }
+        xml.text(XmlElementUtil.batchUpdateNoop(pkColumnName));
+        xml.end();
+        xml.text(" where " + pkColumnName + " in ");
+        xml.leaf("foreach", "#{item." + CommonUtil.mapUnderScoreToLowerCamelCase(pkColumnName) + "}",
+                "collection", "list", "item", "item", "open", "(", "separator", ",", "close", ")");
+        xml.end();
+    }
+
+    private void count(PrettyXMLStreamWriter xml, Table table) throws XMLStreamException {
+        xml.start("select", "id", "count" + CommonUtil.mapUnderScoreToUpperCamelCase(table.getName()) + "s",
+                "parameterType", exampleType(table),
+                "resultType", "integer");
+        xml.text("count(1) from " + table.getName());
+        exampleWhereClauseSqlRef(xml);
+        xml.end();
+    }
+
+    private void select(PrettyXMLStreamWriter xml, Table table) throws XMLStreamException {
+        select(xml, table, "id", "select" + CommonUtil.mapUnderScoreToUpperCamelCase(table.getName()) + "s",
+                "resultMap", "BaseResultMap");
+    }
+
+    private void selectCursor(PrettyXMLStreamWriter xml, Table table) throws XMLStreamException {
+        TableProperties tableProperties = configProperties.tableProperties(table.getName());
+        String id = "select" + CommonUtil.mapUnderScoreToUpperCamelCase(table.getName()) + "sCursor";
+        if (Objects.isNull(tableProperties.getCursorFetchSize())) {
+            select(xml, table, "id", id, "resultMap", "BaseResultMap",
+                    "resultSetType", tableProperties.getCursorResultSetType());
+            return;
+        }
+        select(xml, table, "id", id, "resultMap", "BaseResultMap",
+                "fetchSize", String.valueOf(tableProperties.getCursorFetchSize()),
+                "resultSetType", tableProperties.getCursorResultSetType());
+    }
+
+    private void select(PrettyXMLStreamWriter xml, Table table, String... attributes) throws XMLStreamException {
+        xml.start("select", attributes);
+        xml.text("select ");
+        xml.leaf("if", " distinct ", "test", "distinct");
+        selectedColumnsChoose(xml, null);
+        xml.text(" from " + table.getName());
+        exampleWhereClauseSqlRef(xml);
+        xml.leaf("if", "order by ${orderByClause}", "test", "orderByClause != null");
+        xml.start("if", "test", "limit != null");
+        xml.leaf("if", "limit ${offset}, ${limit}", "test", "offset != null");
+        xml.leaf("if", "limit ${limit}", "test", "offset == null");
+        xml.end();
+        xml.end();
+    }
+
+    private void baseColumnList(PrettyXMLStreamWriter xml, Table table) throws XMLStreamException {
+        xml.leaf("sql", String.join(",", columnNames(table)), "id", "Base_Column_List");
+    }
+
+    private void selectedColumnsChoose(PrettyXMLStreamWriter xml, String example) throws XMLStreamException {
+        xml.start("choose");
+        xml.start("when", "test", XmlElementUtil.selectedColumnsTest(example));
+        xml.leaf("foreach", "${column}", "collection", XmlElementUtil.selectedColumnsProperty(example),
+                "item", "column", "separator", ",");
+        xml.end();
+        xml.start("otherwise");
+        xml.empty("include", "refid", "Base_Column_List");
+        xml.end();
+        xml.end();
+    }
+
+    private void selectByPKey(PrettyXMLStreamWriter xml, Table table) throws XMLStreamException {
+        TableColumn pkColumn = table.getPrimaryKeyColumn();
+        selectByColumn(xml, table, pkColumn, "select" + CommonUtil.mapUnderScoreToUpperCamelCase(table.getName()) + "By"
+                + CommonUtil.mapUnderScoreToUpperCamelCase(pkColumn.getColumnName()));
+    }
+
+    /**
+     * 按索引的第一列(主键除外)查询
+     */
+    private void selectByIndexes(PrettyXMLStreamWriter xml, Table table) throws XMLStreamException {
+        for (TableColumn column : table.getColumns()) {
+            if (column.isLeadingIndexed() && !CommonUtil.isPrimaryKey(table, column)) {
+                selectByColumn(xml, table, column, CommonUtil.indexFinderName(table, column));
+            }
+        }
+    }
+
+    private void selectByColumn(PrettyXMLStreamWriter xml, Table table, TableColumn column, String id)
+            throws XMLStreamException {
+        String columnName = column.getColumnName();
+        xml.start("select", "id", id, "resultMap", "BaseResultMap");
+        xml.text("select ");
+        xml.empty("include", "refid", "Base_Column_List");
+        xml.text(" from " + table.getName()
+                + " where " + columnName + " = #{" + CommonUtil.mapUnderScoreToLowerCamelCase(columnName) + "}");
+        xml.end();
+    }
+
+    private void selectByPKeys(PrettyXMLStreamWriter xml, Table table) throws XMLStreamException {
+        String pkColumnName = table.getPrimaryKeyColumn().getColumnName();
+        xml.start("select", "id", "select" + CommonUtil.mapUnderScoreToUpperCamelCase(table.getName()) + "sBy"
+                        + CommonUtil.mapUnderScoreToUpperCamelCase(pkColumnName) + "sChunk",
+                "resultMap", "BaseResultMap");
+        xml.text("select ");
+        xml.empty("include", "refid", "Base_Column_List");
+        xml.text(" from " + table.getName() + " where " + pkColumnName + " in");
+        xml.leaf("foreach", "#{pk}", "collection", "pks", "item", "pk", "open", "(", "separator", ",", "close", ")");
+        xml.end();
+    }
+
+    private void selectAfter(PrettyXMLStreamWriter xml, Table table) throws XMLStreamException {
+        String pkColumnName = table.getPrimaryKeyColumn().getColumnName();
+        xml.start("select", "id", "select" + CommonUtil.mapUnderScoreToUpperCamelCase(table.getName()) + "sAfter",
+                "resultMap", "BaseResultMap");
+        xml.text("select ");
+        selectedColumnsChoose(xml, "example");
+        xml.text(" from " + table.getName());
+        xml.start("where");
+        xml.leaf("if", pkColumnName + " > #{last}", "test", "last != null");
+        xml.start("if", "test", "example != null");
+        xml.empty("include", "refid", "Param_Example_Where_Clause");
+        xml.end();
+        xml.end();
+        xml.text("order by " + pkColumnName + " limit #{limit}");
+        xml.end();
+    }
+
+    private void delete(PrettyXMLStreamWriter xml, Table table) throws XMLStreamException {
+        xml.start("delete", "id", "delete" + CommonUtil.mapUnderScoreToUpperCamelCase(table.getName()),
+                "parameterType", exampleType(table));
+        xml.text(" delete from " + table.getName());
+        exampleWhereClauseSqlRef(xml);
+        xml.end();
+    }
+
+    private String exampleType(Table table) {
+        return configProperties.getMapperInterfaceGenPkg() + "."
+                + CommonUtil.mapUnderScoreToUpperCamelCase(table.getName()) + "Example";
+    }
+
+    private static List<String> columnNames(Table table) {
+        return table.getColumns().stream().map(TableColumn::getColumnName).collect(Collectors.toList());
+    }
+}
@@ -1,5 +1,6 @@
 package codegen.gen.xml;
 
+import codegen.ConfigProperties;
 import codegen.gen.Generator;
 
 /**
@@ -8,4 +9,11 @@ import codegen.gen.Generator;
  * @date: 2023/6/27
  **/
 public interface XMLGenerator extends Generator {
+
+    /**
+     * 是否为配置的xmlGenType对应的实现；默认支持，未实现该方法的扩展实现仍按加载顺序取第一个
+     */
+    default boolean supports(ConfigProperties configProperties) {
+        return true;
+    }
 }
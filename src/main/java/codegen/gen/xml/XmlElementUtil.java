@@ -2,9 +2,12 @@ package codegen.gen.xml;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Collectors;
 import org.jdom2.Content;
 import org.jdom2.Element;
 import codegen.gen.CommonUtil;
+import codegen.table.Table;
+import codegen.table.TableColumn;
 
 /**
  * @author: baotingyu
@@ -54,7 +57,7 @@ public class XmlElementUtil {
 
         fieldNames.forEach(fieldName -> {
             Element ifEle = new Element("if");
-            ifEle.setAttribute("test", CommonUtil.mapUnderScoreToLowerCamelCase(fieldName)+"!=null");
+            ifEle.setAttribute("test", param+"."+CommonUtil.mapUnderScoreToLowerCamelCase(fieldName)+"!=null");
             ifEle.addContent(fieldName + "= #{"+param+"."+CommonUtil.mapUnderScoreToLowerCamelCase(fieldName)+"}"+",");
 
             set.addContent(ifEle);
@@ -62,6 +65,129 @@ public class XmlElementUtil {
         return set;
     }
 
+    /**
+     * 多行update更新的列：除主键外的全部列
+     */
+    public static List<String> batchUpdateColumnNames(Table table){
+        return table.getColumns().stream()
+                .filter(column -> !CommonUtil.isPrimaryKey(table, column))
+                .map(TableColumn::getColumnName)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * 多行update的set：每列一个col = case pk when .. then .. else col end，
+     * 值为null的行不出现在case中(保持原值)，所有行都为null的列由trim整体去掉；
+     * 最后固定加上pk = pk，所有列都被去掉时set仍然合法
+     */
+    public static Element batchUpdateSetTrim(String pkColumnName,List<String> columnNames){
+        Element set = new Element("trim");
+        set.setAttribute("prefix","set");
+        set.setAttribute("suffixOverrides",",");
+
+        columnNames.forEach(columnName -> {
+            Element trim = new Element("trim");
+            trim.setAttribute("prefix",columnName+" = case "+pkColumnName);
+            trim.setAttribute("suffix","else "+columnName+" end,");
+
+            Element foreach = new Element("foreach");
+            foreach.setAttribute("collection","list");
+            foreach.setAttribute("item","item");
+
+            String field = CommonUtil.mapUnderScoreToLowerCamelCase(columnName);
+            Element ifEle = new Element("if");
+            ifEle.setAttribute("test","item."+field+"!=null");
+            ifEle.addContent(batchUpdateWhenThen(pkColumnName,columnName));
+
+            foreach.addContent(ifEle);
+            trim.addContent(foreach);
+            set.addContent(trim);
+        });
+        set.addContent(batchUpdateNoop(pkColumnName));
+        return set;
+    }
+
+    public static String batchUpdateNoop(String pkColumnName){
+        return pkColumnName+" = "+pkColumnName;
+    }
+
+    public static String batchUpdateWhenThen(String pkColumnName,String columnName){
+        return "when #{item."+CommonUtil.mapUnderScoreToLowerCamelCase(pkColumnName)+"} then #{item."
+                +CommonUtil.mapUnderScoreToLowerCamelCase(columnName)+"}";
+    }
+
+    public static Element batchUpdatePkInForeach(String pkColumnName){
+        Element foreach = new Element("foreach");
+        foreach.setAttribute("collection","list");
+        foreach.setAttribute("item","item");
+        foreach.setAttribute("open","(");
+        foreach.setAttribute("separator",",");
+        foreach.setAttribute("close",")");
+        foreach.addContent("#{item."+CommonUtil.mapUnderScoreToLowerCamelCase(pkColumnName)+"}");
+        return foreach;
+    }
+
+    /**
+     * 多行insert插入的列：除自增列外的全部列
+     */
+    public static List<String> batchInsertColumnNames(Table table){
+        return table.getColumns().stream()
+                .filter(c -> !c.isAutoIncrement())
+                .map(TableColumn::getColumnName)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * upsert的键列：主键及唯一索引列，主键在第一个
+     */
+    public static List<String> upsertKeyColumnNames(Table table){
+        List<String> keyColumns = new ArrayList<>();
+        keyColumns.add(table.getPrimaryKeyColumn().getColumnName());
+        table.getColumns().stream()
+                .filter(c -> c.isUniqIndexed() && !CommonUtil.isPrimaryKey(table, c))
+                .forEach(c -> keyColumns.add(c.getColumnName()));
+        return keyColumns;
+    }
+
+    /**
+     * upsert冲突时更新的列：除主键外的全部列
+     */
+    public static List<String> upsertUpdateColumnNames(Table table){
+        return batchUpdateColumnNames(table);
+    }
+
+    /**
+     * 多行insert的一行：(..,..)，null字段插入DEFAULT，与insertXxx不插入null字段的效果一致
+     */
+    public static Element rowValuesTrim(String param,List<String> columnNames){
+        Element trim = new Element("trim");
+        trim.setAttribute("prefix","(");
+        trim.setAttribute("suffix",")");
+        trim.setAttribute("suffixOverrides",",");
+        columnNames.forEach(columnName -> {
+            String field = param+"."+CommonUtil.mapUnderScoreToLowerCamelCase(columnName);
+            Element choose = new Element("choose");
+            Element when = new Element("when");
+            when.setAttribute("test",field+"!=null");
+            when.addContent("#{"+field+"},");
+            Element otherwise = new Element("otherwise");
+            otherwise.addContent("DEFAULT,");
+            choose.addContent(when);
+            choose.addContent(otherwise);
+            trim.addContent(choose);
+        });
+        return trim;
+    }
+
+    public static Element batchInsertValuesForeach(List<String> columnNames){
+        Element foreach = new Element("foreach");
+        foreach.setAttribute("collection","list");
+        foreach.setAttribute("item","item");
+        foreach.setAttribute("separator",",");
+        foreach.addContent(rowValuesTrim("item",columnNames));
+        return foreach;
+    }
+
     public static Element exampleWhereClauseSqlRef(){
         Element anIf = new Element("if");
         anIf.setAttribute("test","_parameter != null");
@@ -81,11 +207,95 @@ public class XmlElementUtil {
         Element where = new Element("where");
         whereClause.addContent(where);
 
+        where.addContent(oredCriteriaForeach("oredCriteria"));
+
+        return whereClause;
+    }
+
+    /**
+     * 参数为@Param("example")时使用的条件，以and开头，可跟在其它条件之后
+     */
+    public static Element paramExampleWhereClause(){
+        Element whereClause = new Element("sql");
+        whereClause.setAttribute("id","Param_Example_Where_Clause");
+
+        Element trim = new Element("trim");
+        trim.setAttribute("prefix","and (");
+        trim.setAttribute("suffix",")");
+        whereClause.addContent(trim);
+
+        trim.addContent(oredCriteriaForeach("example.oredCriteria"));
+
+        return whereClause;
+    }
+
+    public static Element paramExampleWhereClauseSqlRef(){
+        Element anIf = new Element("if");
+        anIf.setAttribute("test","example != null");
+
+        Element include = new Element("include");
+        include.setAttribute("refid","Param_Example_Where_Clause");
+
+        anIf.addContent(include);
+
+        return anIf;
+    }
+
+    /**
+     * 全部列，Example未指定查询列时使用
+     */
+    public static Element baseColumnList(Table table){
+        Element sql = new Element("sql");
+        sql.setAttribute("id","Base_Column_List");
+        sql.addContent(table.getColumns().stream().map(TableColumn::getColumnName).collect(Collectors.joining(",")));
+        return sql;
+    }
+
+    public static Element baseColumnListRef(){
+        Element include = new Element("include");
+        include.setAttribute("refid","Base_Column_List");
+        return include;
+    }
+
+    /**
+     * 查询列：Example.select(Column...)指定的列，未指定时为Base_Column_List；
+     * example为null时取参数本身的selectedColumns，否则取该参数的selectedColumns
+     */
+    public static Element selectedColumnsChoose(String example){
+        Element choose = new Element("choose");
+
+        Element when = new Element("when");
+        when.setAttribute("test",selectedColumnsTest(example));
+        Element foreach = new Element("foreach");
+        foreach.setAttribute("collection",selectedColumnsProperty(example));
+        foreach.setAttribute("item","column");
+        foreach.setAttribute("separator",",");
+        foreach.addContent("${column}");
+        when.addContent(foreach);
+
+        Element otherwise = new Element("otherwise");
+        otherwise.addContent(baseColumnListRef());
+
+        choose.addContent(when);
+        choose.addContent(otherwise);
+        return choose;
+    }
+
+    static String selectedColumnsProperty(String example){
+        return example == null ? "selectedColumns" : example + ".selectedColumns";
+    }
+
+    static String selectedColumnsTest(String example){
+        String property = selectedColumnsProperty(example);
+        return (example == null ? "" : example + " != null and ")
+                + property + " != null and !" + property + ".isEmpty()";
+    }
+
+    private static Element oredCriteriaForeach(String collection){
         Element foreach = new Element("foreach");
-        foreach.setAttribute("collection","oredCriteria");
+        foreach.setAttribute("collection",collection);
         foreach.setAttribute("item","criteria");
         foreach.setAttribute("separator","or");
-        where.addContent(foreach);
 
 
         Element validIf = new Element("if");
@@ -117,7 +327,7 @@ public class XmlElementUtil {
         when3.setAttribute("test","criterion.betweenValue");
         when3.addContent("and ${criterion.condition} #{criterion.value} and #{criterion.secondValue}");
         Element when4 = new Element("when");
-        when4.setAttribute("test","criterion.listValue!=null and criterion.listValue.size>0");
+        when4.setAttribute("test","criterion.listValue");
         when4.addContent("and ${criterion.condition}");
         Element otherwise = new Element("otherwise");
         otherwise.addContent("false");
@@ -139,7 +349,7 @@ public class XmlElementUtil {
         contents.add(otherwise);
         choose.addContent(contents);
 
-        return whereClause;
+        return foreach;
     }
 
 
@@ -4,9 +4,13 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
 
 import codegen.ConfigProperties;
@@ -18,12 +22,41 @@ import codegen.ConfigProperties;
  **/
 public class YAMLFileParser implements ConfigFileParser {
 
+    private static final String DATASOURCES = "datasources";
+
     private static final ObjectMapper yamlMapper = new ObjectMapper(new YAMLFactory());
 
     @Override
     public ConfigProperties parse(String filePath) throws IOException {
-        InputStream inputStream = Files.newInputStream(Paths.get(filePath));
-        return yamlMapper.readValue(inputStream, ConfigProperties.class);
+        JsonNode tree;
+        try (InputStream inputStream = Files.newInputStream(Paths.get(filePath))) {
+            tree = yamlMapper.readTree(inputStream);
+        }
+        if (!(tree instanceof ObjectNode)) {
+            return yamlMapper.treeToValue(tree, ConfigProperties.class);
+        }
+        ObjectNode root = (ObjectNode) tree;
+        JsonNode datasourceNodes = root.remove(DATASOURCES);
+        ConfigProperties configProperties = yamlMapper.treeToValue(root, ConfigProperties.class);
+        if (Objects.isNull(datasourceNodes) || !datasourceNodes.isArray()) {
+            return configProperties;
+        }
+
+        // 每个数据源 = 根配置 + 该数据源中的配置项(同名覆盖)
+        List<ConfigProperties> datasources = new ArrayList<>();
+        for (JsonNode datasourceNode : datasourceNodes) {
+            ObjectNode merged = root.deepCopy();
+            if (datasourceNode instanceof ObjectNode) {
+                merged.setAll((ObjectNode) datasourceNode);
+            }
+            ConfigProperties datasource = yamlMapper.treeToValue(merged, ConfigProperties.class);
+            if (Objects.isNull(datasource.getName())) {
+                datasource.setName(String.valueOf(datasources.size()));
+            }
+            datasources.add(datasource);
+        }
+        configProperties.setDatasources(datasources);
+        return configProperties;
     }
 
     @Override
@@ -0,0 +1,75 @@
+package codegen.table;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * 并行读取元数据用的简单连接池，连同调用方传入的已有连接最多maxSize个连接，不足时按需创建；
+ * 已有连接由调用方关闭
+ *
+ * @date: 2026/10/17
+ **/
+class ConnectionPool implements AutoCloseable {
+
+    interface ConnectionFactory {
+        Connection create() throws Exception;
+    }
+
+    private final int maxSize;
+
+    private final ConnectionFactory factory;
+
+    private final BlockingQueue<Connection> idle = new LinkedBlockingQueue<>();
+
+    private final List<Connection> created = new ArrayList<>();
+
+    // 已有连接占用的数量
+    private final int shared;
+
+    ConnectionPool(int maxSize, Connection sharedConnection, ConnectionFactory factory) {
+        this.maxSize = maxSize;
+        this.factory = factory;
+        this.shared = Objects.isNull(sharedConnection) ? 0 : 1;
+        if (Objects.nonNull(sharedConnection)) {
+            idle.offer(sharedConnection);
+        }
+    }
+
+    Connection borrow() throws Exception {
+        Connection conn = idle.poll();
+        if (Objects.nonNull(conn)) {
+            return conn;
+        }
+        synchronized (created) {
+            if (created.size() + shared < maxSize) {
+                conn = factory.create();
+                created.add(conn);
+                return conn;
+            }
+        }
+        return idle.take();
+    }
+
+    void release(Connection conn) {
+        idle.offer(conn);
+    }
+
+    @Override
+    public void close() {
+        synchronized (created) {
+            for (Connection conn : created) {
+                try {
+                    conn.close();
+                } catch (SQLException ignored) {
+                    // 关闭失败不影响生成结果
+                }
+            }
+            created.clear();
+        }
+    }
+}
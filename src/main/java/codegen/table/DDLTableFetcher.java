@@ -0,0 +1,609 @@
+package codegen.table;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.apache.maven.plugin.MojoExecutionException;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import codegen.ConfigProperties;
+
+/**
+ * fetchType 4: 解析建表脚本(如flyway迁移目录)获取表结构，不连接数据库。
+ * 按版本顺序执行脚本中的CREATE TABLE、DROP TABLE、CREATE INDEX、DROP INDEX及常见的ALTER TABLE(增删改列、增删索引)，其余语句忽略
+ *
+ * @date: 2026/10/17
+ **/
+public class DDLTableFetcher implements TableFetcher {
+
+    private static final Pattern CREATE_TABLE = Pattern.compile(
+            "^CREATE\\s+(?:TEMPORARY\\s+)?TABLE\\s+(?:IF\\s+NOT\\s+EXISTS\\s+)?([^\\s(]+)\\s*\\(",
+            Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+
+    private static final Pattern DROP_TABLE = Pattern.compile(
+            "^DROP\\s+(?:TEMPORARY\\s+)?TABLE\\s+(?:IF\\s+EXISTS\\s+)?(.+?)(?:\\s+(?:RESTRICT|CASCADE))?$",
+            Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+
+    private static final Pattern ALTER_TABLE = Pattern.compile(
+            "^ALTER\\s+(?:ONLINE\\s+|IGNORE\\s+)*TABLE\\s+(\\S+)\\s+(.*)$",
+            Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+
+    private static final Pattern CREATE_INDEX = Pattern.compile(
+            "^CREATE\\s+(?:OR\\s+REPLACE\\s+)?(UNIQUE\\s+|FULLTEXT\\s+|SPATIAL\\s+)?INDEX\\s+(?:IF\\s+NOT\\s+EXISTS\\s+)?"
+                    + "(\\S+?)\\s+(?:USING\\s+\\w+\\s+)?ON\\s+([^\\s(]+)\\s*(\\(.*)$",
+            Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+
+    private static final Pattern DROP_INDEX = Pattern.compile(
+            "^DROP\\s+INDEX\\s+(?:IF\\s+EXISTS\\s+)?(\\S+)\\s+ON\\s+([^\\s;]+).*$",
+            Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+
+    // flyway版本号，如 V1_2__init.sql
+    private static final Pattern FLYWAY_VERSION = Pattern.compile("^[Vv]([0-9._]+)__.*");
+
+    // flyway撤销脚本，如 U1_2__init.sql，不参与解析
+    private static final Pattern FLYWAY_UNDO = Pattern.compile("^[Uu][0-9._]+__.*");
+
+    // flyway可重复执行脚本，如 R__views.sql，在所有版本脚本之后执行
+    private static final Pattern FLYWAY_REPEATABLE = Pattern.compile("^[Rr]__.*");
+
+    @Override
+    public Set<Table> fetch(ConfigProperties configProperties) throws Exception {
+        Set<String> excludedTables = new HashSet<>();
+        if (Objects.nonNull(configProperties.getExcludedTables()) && configProperties.getExcludedTables().length > 0) {
+            excludedTables.addAll(Arrays.asList(configProperties.getExcludedTables()));
+        }
+
+        Map<String, DDLTable> name2Table = new LinkedHashMap<>();
+        for (Path script : scripts(configProperties)) {
+            String sql = new String(Files.readAllBytes(script), StandardCharsets.UTF_8);
+            for (String statement : splitStatements(sql)) {
+                apply(name2Table, statement);
+            }
+        }
+
+        Set<Table> tables = new LinkedHashSet<>();
+        for (DDLTable ddlTable : name2Table.values()) {
+            if (excludedTables.contains(ddlTable.name)) {
+                continue;
+            }
+            tables.add(ddlTable.toTable());
+        }
+        return tables;
+    }
+
+    @Override
+    public boolean supports(ConfigProperties configProperties) {
+        return configProperties.getFetchType().equals(4);
+    }
+
+    @Override
+    public String fingerprint(ConfigProperties configProperties) throws Exception {
+        Hasher hasher = Hashing.sha256().newHasher();
+        if (Objects.nonNull(configProperties.getExcludedTables())) {
+            for (String excludedTable : new TreeSet<>(Arrays.asList(configProperties.getExcludedTables()))) {
+                hasher.putString(excludedTable + "|", StandardCharsets.UTF_8);
+            }
+        }
+        for (Path script : scripts(configProperties)) {
+            hasher.putString(script.getFileName().toString() + "|", StandardCharsets.UTF_8);
+            hasher.putBytes(Files.readAllBytes(script));
+        }
+        return hasher.hash().toString();
+    }
+
+    /**
+     * 目录下的.sql文件，flyway版本脚本按版本号排序，其余按文件名排序排在其后，R__脚本按文件名排在最后；忽略U__撤销脚本
+     */
+    private List<Path> scripts(ConfigProperties configProperties) throws IOException, MojoExecutionException {
+        Path path = Paths.get(configProperties.getDdlScriptPath());
+        if (!Files.exists(path)) {
+            throw new MojoExecutionException("Failed to generate code: ddl script path does not exist: " + path);
+        }
+        if (!Files.isDirectory(path)) {
+            return Collections.singletonList(path);
+        }
+        try (Stream<Path> files = Files.walk(path)) {
+            return files.filter(Files::isRegularFile)
+                    .filter(p -> p.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".sql"))
+                    .filter(p -> !FLYWAY_UNDO.matcher(p.getFileName().toString()).matches())
+                    .sorted(Comparator.comparing(DDLTableFetcher::scriptOrder)
+                            .thenComparing(DDLTableFetcher::compareVersion)
+                            .thenComparing(p -> p.getFileName().toString()))
+                    .collect(Collectors.toList());
+        }
+    }
+
+    /**
+     * 0:版本脚本 1:其他脚本 2:可重复执行脚本
+     */
+    private static int scriptOrder(Path path) {
+        if (flywayVersion(path) != null) {
+            return 0;
+        }
+        return FLYWAY_REPEATABLE.matcher(path.getFileName().toString()).matches() ? 2 : 1;
+    }
+
+    private static List<Long> flywayVersion(Path path) {
+        Matcher matcher = FLYWAY_VERSION.matcher(path.getFileName().toString());
+        if (!matcher.matches()) {
+            return null;
+        }
+        List<Long> version = new ArrayList<>();
+        for (String part : matcher.group(1).split("[._]")) {
+            if (!part.isEmpty()) {
+                version.add(Long.parseLong(part));
+            }
+        }
+        return version;
+    }
+
+    private static int compareVersion(Path p1, Path p2) {
+        List<Long> v1 = flywayVersion(p1);
+        List<Long> v2 = flywayVersion(p2);
+        if (v1 == null || v2 == null) {
+            return 0;
+        }
+        for (int i = 0; i < Math.max(v1.size(), v2.size()); i++) {
+            long a = i < v1.size() ? v1.get(i) : 0;
+            long b = i < v2.size() ? v2.get(i) : 0;
+            if (a != b) {
+                return Long.compare(a, b);
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * 去掉注释并按分号拆分语句，忽略引号内的内容
+     */
+    static List<String> splitStatements(String sql) {
+        List<String> statements = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        char quote = 0;
+        int i = 0;
+        while (i < sql.length()) {
+            char ch = sql.charAt(i);
+            if (quote != 0) {
+                current.append(ch);
+                if (ch == '\\' && quote != '`' && i + 1 < sql.length()) {
+                    current.append(sql.charAt(++i));
+                } else if (ch == quote) {
+                    quote = 0;
+                }
+                i++;
+                continue;
+            }
+            if (ch == '\'' || ch == '"' || ch == '`') {
+                quote = ch;
+                current.append(ch);
+                i++;
+            } else if (ch == '#' || (ch == '-' && sql.startsWith("--", i)
+                    && (i + 2 >= sql.length() || Character.isWhitespace(sql.charAt(i + 2))))) {
+                int end = sql.indexOf('\n', i);
+                i = end < 0 ? sql.length() : end;
+            } else if (ch == '/' && sql.startsWith("/*", i)) {
+                int end = sql.indexOf("*/", i + 2);
+                i = end < 0 ? sql.length() : end + 2;
+                current.append(' ');
+            } else if (ch == ';') {
+                addStatement(statements, current);
+                i++;
+            } else {
+                current.append(ch);
+                i++;
+            }
+        }
+        addStatement(statements, current);
+        return statements;
+    }
+
+    private static void addStatement(List<String> statements, StringBuilder current) {
+        String statement = current.toString().trim();
+        if (!statement.isEmpty()) {
+            statements.add(statement);
+        }
+        current.setLength(0);
+    }
+
+    private void apply(Map<String, DDLTable> name2Table, String statement) throws MojoExecutionException {
+        Matcher create = CREATE_TABLE.matcher(statement);
+        if (create.lookingAt()) {
+            DDLTable table = new DDLTable(unquoteName(create.group(1)));
+            int open = create.end() - 1;
+            String body = statement.substring(open + 1, closingParen(statement, open));
+            for (String definition : splitTopLevel(body)) {
+                table.addDefinition(definition);
+            }
+            name2Table.put(key(table.name), table);
+            return;
+        }
+        Matcher drop = DROP_TABLE.matcher(statement);
+        if (drop.matches()) {
+            for (String name : splitTopLevel(drop.group(1))) {
+                name2Table.remove(key(unquoteName(name)));
+            }
+            return;
+        }
+        Matcher alter = ALTER_TABLE.matcher(statement);
+        if (alter.matches()) {
+            DDLTable table = name2Table.get(key(unquoteName(alter.group(1))));
+            if (Objects.isNull(table)) {
+                return;
+            }
+            for (String specification : splitTopLevel(alter.group(2))) {
+                table.alter(specification);
+            }
+            return;
+        }
+        Matcher createIndex = CREATE_INDEX.matcher(statement);
+        if (createIndex.matches()) {
+            DDLTable table = name2Table.get(key(unquoteName(createIndex.group(3))));
+            if (Objects.nonNull(table)) {
+                boolean unique = Objects.nonNull(createIndex.group(1))
+                        && startsWithWord(createIndex.group(1), "UNIQUE");
+                table.addIndex(createIndex.group(2) + " " + createIndex.group(4), unique);
+            }
+            return;
+        }
+        Matcher dropIndex = DROP_INDEX.matcher(statement);
+        if (dropIndex.matches()) {
+            DDLTable table = name2Table.get(key(unquoteName(dropIndex.group(2))));
+            if (Objects.nonNull(table)) {
+                table.dropIndex(unquoteName(dropIndex.group(1)));
+            }
+        }
+    }
+
+    /**
+     * 与open位置的左括号匹配的右括号位置，忽略引号内的括号
+     */
+    static int closingParen(String text, int open) {
+        int depth = 0;
+        char quote = 0;
+        for (int i = open; i < text.length(); i++) {
+            char ch = text.charAt(i);
+            if (quote != 0) {
+                if (ch == '\\' && quote != '`') {
+                    i++;
+                } else if (ch == quote) {
+                    quote = 0;
+                }
+            } else if (ch == '\'' || ch == '"' || ch == '`') {
+                quote = ch;
+            } else if (ch == '(') {
+                depth++;
+            } else if (ch == ')' && --depth == 0) {
+                return i;
+            }
+        }
+        return text.length();
+    }
+
+    /**
+     * 按顶层逗号拆分，忽略括号及引号内的逗号
+     */
+    static List<String> splitTopLevel(String text) {
+        List<String> parts = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        int depth = 0;
+        char quote = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char ch = text.charAt(i);
+            if (quote != 0) {
+                if (ch == '\\' && quote != '`' && i + 1 < text.length()) {
+                    current.append(ch).append(text.charAt(++i));
+                    continue;
+                }
+                if (ch == quote) {
+                    quote = 0;
+                }
+            } else if (ch == '\'' || ch == '"' || ch == '`') {
+                quote = ch;
+            } else if (ch == '(') {
+                depth++;
+            } else if (ch == ')') {
+                depth--;
+            } else if (ch == ',' && depth == 0) {
+                parts.add(current.toString().trim());
+                current.setLength(0);
+                continue;
+            }
+            current.append(ch);
+        }
+        if (current.toString().trim().length() > 0) {
+            parts.add(current.toString().trim());
+        }
+        return parts;
+    }
+
+    static String unquoteName(String name) {
+        String trimmed = name.trim();
+        int dot = lastTopLevelDot(trimmed);
+        if (dot >= 0) {
+            trimmed = trimmed.substring(dot + 1);
+        }
+        if (trimmed.length() >= 2 && (trimmed.charAt(0) == '`' || trimmed.charAt(0) == '"')) {
+            return trimmed.substring(1, trimmed.length() - 1);
+        }
+        return trimmed;
+    }
+
+    private static int lastTopLevelDot(String name) {
+        boolean quoted = false;
+        int dot = -1;
+        for (int i = 0; i < name.length(); i++) {
+            char ch = name.charAt(i);
+            if (ch == '`' || ch == '"') {
+                quoted = !quoted;
+            } else if (ch == '.' && !quoted) {
+                dot = i;
+            }
+        }
+        return dot;
+    }
+
+    private static String key(String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+
+    private static String firstWord(String text) {
+        String trimmed = text.trim();
+        if (trimmed.startsWith("`") || trimmed.startsWith("\"")) {
+            int end = trimmed.indexOf(trimmed.charAt(0), 1);
+            return end < 0 ? trimmed : trimmed.substring(0, end + 1);
+        }
+        int i = 0;
+        while (i < trimmed.length() && !Character.isWhitespace(trimmed.charAt(i)) && trimmed.charAt(i) != '(') {
+            i++;
+        }
+        return trimmed.substring(0, i);
+    }
+
+    private static String stripPrefix(String text, String... words) {
+        String rest = text.trim();
+        for (String word : words) {
+            if (startsWithWord(rest, word)) {
+                rest = rest.substring(word.length()).trim();
+            }
+        }
+        return rest;
+    }
+
+    private static boolean startsWithWord(String text, String word) {
+        return text.regionMatches(true, 0, word, 0, word.length())
+                && (text.length() == word.length() || !Character.isLetterOrDigit(text.charAt(word.length()))
+                && text.charAt(word.length()) != '_');
+    }
+
+    /**
+     * 解析过程中的表结构，列及索引名均不区分大小写
+     */
+    private static class DDLTable {
+
+        private final String name;
+
+        private final Map<String, TableColumn> columns = new LinkedHashMap<>();
+
+        private final List<String> primaryKeyColumns = new ArrayList<>();
+
+        // 索引名:列
+        private final Map<String, List<String>> indexes = new LinkedHashMap<>();
+
+        private final Set<String> uniqIndexes = new HashSet<>();
+
+        private int anonymousIndexes;
+
+        DDLTable(String name) {
+            this.name = name;
+        }
+
+        void addDefinition(String definition) throws MojoExecutionException {
+            String rest = definition.trim();
+            if (startsWithWord(rest, "CONSTRAINT")) {
+                rest = rest.substring("CONSTRAINT".length()).trim();
+                if (!startsWithWord(rest, "PRIMARY") && !startsWithWord(rest, "UNIQUE")
+                        && !startsWithWord(rest, "FOREIGN") && !startsWithWord(rest, "CHECK")) {
+                    rest = rest.substring(firstWord(rest).length()).trim();
+                }
+            }
+            if (startsWithWord(rest, "PRIMARY")) {
+                primaryKeyColumns.clear();
+                primaryKeyColumns.addAll(indexColumns(rest));
+                indexes.put("primary", new ArrayList<>(primaryKeyColumns));
+                uniqIndexes.add("primary");
+            } else if (startsWithWord(rest, "UNIQUE")) {
+                addIndex(stripPrefix(rest, "UNIQUE", "KEY", "INDEX"), true);
+            } else if (startsWithWord(rest, "KEY") || startsWithWord(rest, "INDEX")) {
+                addIndex(stripPrefix(rest, "KEY", "INDEX"), false);
+            } else if (startsWithWord(rest, "FULLTEXT") || startsWithWord(rest, "SPATIAL")) {
+                addIndex(stripPrefix(rest, "FULLTEXT", "SPATIAL", "KEY", "INDEX"), false);
+            } else if (startsWithWord(rest, "FOREIGN")) {
+                // 外键列MySQL会自动建索引
+                addIndex(stripPrefix(rest, "FOREIGN", "KEY"), false);
+            } else if (!startsWithWord(rest, "CHECK")) {
+                addColumn(rest, null);
+            }
+        }
+
+        void alter(String specification) throws MojoExecutionException {
+            String rest = specification.trim();
+            if (startsWithWord(rest, "ADD")) {
+                rest = stripPrefix(rest, "ADD");
+                if (startsWithWord(rest, "COLUMN")) {
+                    addColumn(stripPrefix(rest, "COLUMN"), null);
+                } else if (startsWithWord(rest, "CONSTRAINT") || startsWithWord(rest, "PRIMARY")
+                        || startsWithWord(rest, "UNIQUE") || startsWithWord(rest, "KEY") || startsWithWord(rest, "INDEX")
+                        || startsWithWord(rest, "FULLTEXT") || startsWithWord(rest, "SPATIAL")
+                        || startsWithWord(rest, "FOREIGN") || startsWithWord(rest, "CHECK")) {
+                    addDefinition(rest);
+                } else {
+                    addColumn(rest, null);
+                }
+            } else if (startsWithWord(rest, "DROP")) {
+                rest = stripPrefix(rest, "DROP");
+                if (startsWithWord(rest, "PRIMARY")) {
+                    primaryKeyColumns.clear();
+                    indexes.remove("primary");
+                } else if (startsWithWord(rest, "KEY") || startsWithWord(rest, "INDEX")) {
+                    dropIndex(unquoteName(firstWord(stripPrefix(rest, "KEY", "INDEX"))));
+                } else if (!startsWithWord(rest, "FOREIGN") && !startsWithWord(rest, "CHECK")
+                        && !startsWithWord(rest, "CONSTRAINT")) {
+                    String columnName = unquoteName(firstWord(stripPrefix(rest, "COLUMN")));
+                    columns.remove(key(columnName));
+                    primaryKeyColumns.removeIf(c -> key(c).equals(key(columnName)));
+                    indexes.values().forEach(cols -> cols.removeIf(c -> key(c).equals(key(columnName))));
+                }
+            } else if (startsWithWord(rest, "MODIFY")) {
+                addColumn(stripPrefix(rest, "MODIFY", "COLUMN"), null);
+            } else if (startsWithWord(rest, "CHANGE")) {
+                rest = stripPrefix(rest, "CHANGE", "COLUMN");
+                String oldName = firstWord(rest);
+                addColumn(rest.substring(oldName.length()).trim(), unquoteName(oldName));
+            }
+        }
+
+        void dropIndex(String indexName) {
+            indexes.remove(key(indexName));
+            uniqIndexes.remove(key(indexName));
+        }
+
+        void addIndex(String rest, boolean unique) throws MojoExecutionException {
+            String indexName;
+            if (rest.startsWith("(")) {
+                indexName = "$" + (anonymousIndexes++);
+            } else {
+                indexName = key(unquoteName(firstWord(rest)));
+            }
+            indexes.put(indexName, indexColumns(rest));
+            if (unique) {
+                uniqIndexes.add(indexName);
+            }
+        }
+
+        private List<String> indexColumns(String definition) throws MojoExecutionException {
+            int open = definition.indexOf('(');
+            if (open < 0) {
+                throw new MojoExecutionException("Failed to parse ddl of table " + name + ": " + definition);
+            }
+            List<String> indexColumns = new ArrayList<>();
+            for (String part : splitTopLevel(definition.substring(open + 1, closingParen(definition, open)))) {
+                // 去掉前缀长度及排序，如 name(10) DESC
+                indexColumns.add(unquoteName(firstWord(part)));
+            }
+            return indexColumns;
+        }
+
+        /**
+         * @param oldName CHANGE COLUMN时的原列名，列顺序保持不变
+         */
+        private void addColumn(String definition, String oldName) throws MojoExecutionException {
+            String quotedName = firstWord(definition);
+            String rest = definition.substring(quotedName.length()).trim();
+            String columnName = unquoteName(quotedName);
+            String dataType = firstWord(rest);
+            if (dataType.isEmpty()) {
+                throw new MojoExecutionException("Failed to parse ddl of table " + name + ": " + definition);
+            }
+            rest = rest.substring(dataType.length()).trim();
+            int columnSize = 0;
+            if (rest.startsWith("(")) {
+                int end = rest.indexOf(')');
+                String args = rest.substring(1, end < 0 ? rest.length() : end);
+                String size = args.split(",")[0].trim();
+                if (size.matches("\\d+")) {
+                    columnSize = Integer.parseInt(size);
+                }
+                rest = end < 0 ? "" : rest.substring(end + 1);
+            }
+            String attributes = " " + rest.toUpperCase(Locale.ROOT).replaceAll("'(?:[^'\\\\]|\\\\.)*'", "''") + " ";
+
+            TableColumn c = new TableColumn();
+            c.setColumnName(columnName);
+            c.setDataType(MySQLTypes.toJdbcType(dataType, attributes.contains(" UNSIGNED ")));
+            c.setTypeName(dataType.toUpperCase(Locale.ROOT));
+            c.setColumnSize(columnSize);
+            c.setNullable(!attributes.contains(" NOT NULL ") && !attributes.contains(" PRIMARY KEY "));
+            c.setAutoIncrement(attributes.contains(" AUTO_INCREMENT "));
+
+            if (Objects.nonNull(oldName) && !key(oldName).equals(key(columnName))) {
+                Map<String, TableColumn> renamed = new LinkedHashMap<>();
+                columns.forEach((k, v) -> renamed.put(k.equals(key(oldName)) ? key(columnName) : k, v));
+                columns.clear();
+                columns.putAll(renamed);
+                primaryKeyColumns.replaceAll(n -> key(n).equals(key(oldName)) ? columnName : n);
+                indexes.values().forEach(cols -> cols.replaceAll(n -> key(n).equals(key(oldName)) ? columnName : n));
+            }
+            columns.put(key(columnName), c);
+
+            if (attributes.contains(" PRIMARY KEY ")) {
+                primaryKeyColumns.clear();
+                primaryKeyColumns.add(columnName);
+                indexes.put("primary", new ArrayList<>(primaryKeyColumns));
+                uniqIndexes.add("primary");
+            } else if (attributes.contains(" UNIQUE ")) {
+                String indexName = key(columnName);
+                indexes.put(indexName, new ArrayList<>(Arrays.asList(columnName)));
+                uniqIndexes.add(indexName);
+            }
+        }
+
+        Table toTable() throws MojoExecutionException {
+            Set<String> indexed = new HashSet<>();
+            Set<String> leadingIndexed = new HashSet<>();
+            Set<String> uniqIndexed = new HashSet<>();
+            Set<String> singleUniqIndexed = new HashSet<>();
+            indexes.forEach((indexName, indexColumns) -> {
+                indexColumns.forEach(c -> indexed.add(key(c)));
+                if (!indexColumns.isEmpty()) {
+                    leadingIndexed.add(key(indexColumns.get(0)));
+                }
+                if (uniqIndexes.contains(indexName)) {
+                    indexColumns.forEach(c -> uniqIndexed.add(key(c)));
+                    if (indexColumns.size() == 1) {
+                        singleUniqIndexed.add(key(indexColumns.get(0)));
+                    }
+                }
+            });
+
+            Table table = new Table();
+            table.setName(name);
+            // 联合主键时取最后一列，与JDBCTableFetcher一致
+            String primaryKeyColumnName = primaryKeyColumns.isEmpty()
+                    ? null : key(primaryKeyColumns.get(primaryKeyColumns.size() - 1));
+            for (Map.Entry<String, TableColumn> entry : columns.entrySet()) {
+                TableColumn c = entry.getValue();
+                c.setIndexed(indexed.contains(entry.getKey()));
+                c.setLeadingIndexed(leadingIndexed.contains(entry.getKey()));
+                c.setUniqIndexed(uniqIndexed.contains(entry.getKey()));
+                c.setSingleUniqIndexed(singleUniqIndexed.contains(entry.getKey()));
+                if (entry.getKey().equals(primaryKeyColumnName)) {
+                    table.setPrimaryKeyColumn(c);
+                }
+                table.addColumn(c);
+            }
+            if (Objects.isNull(table.getPrimaryKeyColumn())) {
+                throw new MojoExecutionException("require a primary key in table : " + table.getName());
+            }
+            return table;
+        }
+    }
+}
@@ -1,16 +1,34 @@
 package codegen.table;
 
+import java.nio.charset.StandardCharsets;
 import java.sql.Connection;
 import java.sql.DatabaseMetaData;
 import java.sql.DriverManager;
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.apache.commons.lang3.StringUtils;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.checkerframework.checker.nullness.qual.Nullable;
 import com.google.common.collect.Sets;
+import com.google.common.hash.Hasher;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.common.hash.Hashing;
 import codegen.ConfigProperties;
 
 /**
@@ -19,83 +37,361 @@ import codegen.ConfigProperties;
  **/
 public class JDBCTableFetcher implements TableFetcher {
 
+    // 依赖MySQL的information_schema，在服务端聚合，只需两次往返
+    private static final String COLUMNS_CHECKSUM_SQL = "SELECT COUNT(*), SUM(CRC32(CONCAT_WS('|', TABLE_NAME, "
+            + "COLUMN_NAME, ORDINAL_POSITION, COLUMN_TYPE, IS_NULLABLE, COLUMN_KEY, EXTRA))) "
+            + "FROM information_schema.COLUMNS WHERE TABLE_SCHEMA = ?";
+
+    private static final String STATISTICS_CHECKSUM_SQL = "SELECT COUNT(*), SUM(CRC32(CONCAT_WS('|', TABLE_NAME, "
+            + "INDEX_NAME, SEQ_IN_INDEX, COLUMN_NAME, NON_UNIQUE))) "
+            + "FROM information_schema.STATISTICS WHERE TABLE_SCHEMA = ?";
+
+    // 一次性读取整个库的主键及索引，依赖MySQL的information_schema
+    private static final String STATISTICS_SQL = "SELECT TABLE_NAME, INDEX_NAME, COLUMN_NAME, NON_UNIQUE, SEQ_IN_INDEX "
+            + "FROM information_schema.STATISTICS WHERE TABLE_SCHEMA = ? ORDER BY TABLE_NAME, INDEX_NAME, SEQ_IN_INDEX";
+
+    private static final String PRIMARY_INDEX_NAME = "PRIMARY";
+
+    // 按表聚合的列、索引校验和，watch模式轮询用，只需一次往返
+    private static final String TABLE_CHECKSUM_SQL = "SELECT t.TABLE_NAME, "
+            + "(SELECT CONCAT(COUNT(*), ':', IFNULL(SUM(CRC32(CONCAT_WS('|', c.COLUMN_NAME, c.ORDINAL_POSITION, "
+            + "c.COLUMN_TYPE, c.IS_NULLABLE, c.COLUMN_KEY, c.EXTRA))), 0)) FROM information_schema.COLUMNS c "
+            + "WHERE c.TABLE_SCHEMA = t.TABLE_SCHEMA AND c.TABLE_NAME = t.TABLE_NAME), "
+            + "(SELECT CONCAT(COUNT(*), ':', IFNULL(SUM(CRC32(CONCAT_WS('|', s.INDEX_NAME, s.SEQ_IN_INDEX, "
+            + "s.COLUMN_NAME, s.NON_UNIQUE))), 0)) FROM information_schema.STATISTICS s "
+            + "WHERE s.TABLE_SCHEMA = t.TABLE_SCHEMA AND s.TABLE_NAME = t.TABLE_NAME) "
+            + "FROM information_schema.TABLES t WHERE t.TABLE_SCHEMA = ? AND t.TABLE_TYPE = 'BASE TABLE'";
+
     @Override
     public Set<Table> fetch(ConfigProperties configProperties) throws Exception {
         HashSet<Table> tables = new HashSet<>();
+        fetch(configProperties, tables::add);
+        return tables;
+    }
 
+    @Override
+    public void fetch(ConfigProperties configProperties, TableSink sink) throws Exception {
         Set<String> excludedTables = new HashSet<>();
         if (Objects.nonNull(configProperties.getExcludedTables()) && configProperties.getExcludedTables().length > 0) {
             excludedTables.addAll(Arrays.asList(configProperties.getExcludedTables()));
         }
 
-        Class.forName(configProperties.getDriver());
-
-        try (Connection conn = DriverManager.getConnection(configProperties.getJdbcUrl(),
-                configProperties.getUsername(),
-                configProperties.getPassword());) {
+        try (Connection conn = connect(configProperties)) {
             String dbName = extractDbFromUrl(configProperties.getJdbcUrl());
 
             DatabaseMetaData metaData = conn.getMetaData();
-            ResultSet tableResultSet = metaData.getTables(dbName, dbName, null, new String[] {"TABLE"});
+            List<String> tableNames = fetchTableNames(metaData, dbName, excludedTables);
 
+            if (configProperties.getJdbcFetchMode().equals(1)) {
+                for (Table table : fetchTablesInBulk(conn, dbName, tableNames)) {
+                    sink.accept(table);
+                }
+                return;
+            }
+            if (configProperties.getJdbcFetchMode().equals(2)) {
+                fetchTablesInParallel(configProperties, conn, dbName, tableNames, sink);
+                return;
+            }
+
+            for (String tableName : tableNames) {
+                sink.accept(fetchTable(metaData, dbName, tableName));
+            }
+        }
+    }
 
+    @Override
+    public Set<Table> fetch(ConfigProperties configProperties, Set<String> tableNames) throws Exception {
+        Set<Table> tables = new HashSet<>();
+        if (tableNames.isEmpty()) {
+            return tables;
+        }
+        try (Connection conn = connect(configProperties)) {
+            String dbName = extractDbFromUrl(configProperties.getJdbcUrl());
+            if (configProperties.getJdbcFetchMode().equals(1)) {
+                tables.addAll(fetchTablesInBulk(conn, dbName, new ArrayList<>(tableNames)));
+                return tables;
+            }
+            DatabaseMetaData metaData = conn.getMetaData();
+            for (String tableName : tableNames) {
+                tables.add(fetchTable(metaData, dbName, tableName));
+            }
+        }
+        return tables;
+    }
+
+    @Override
+    public Map<String, String> tableFingerprints(ConfigProperties configProperties) throws Exception {
+        Set<String> excludedTables = new HashSet<>();
+        if (Objects.nonNull(configProperties.getExcludedTables())) {
+            excludedTables.addAll(Arrays.asList(configProperties.getExcludedTables()));
+        }
+        Map<String, String> fingerprints = new HashMap<>();
+        try (Connection conn = connect(configProperties);
+                PreparedStatement statement = conn.prepareStatement(TABLE_CHECKSUM_SQL)) {
+            statement.setString(1, extractDbFromUrl(configProperties.getJdbcUrl()));
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    String tableName = resultSet.getString(1);
+                    if (!excludedTables.contains(tableName)) {
+                        fingerprints.put(tableName, resultSet.getString(2) + "|" + resultSet.getString(3));
+                    }
+                }
+            }
+        }
+        return fingerprints;
+    }
+
+    protected List<String> fetchTableNames(DatabaseMetaData metaData, String dbName, Set<String> excludedTables)
+            throws SQLException {
+        List<String> tableNames = new ArrayList<>();
+        try (ResultSet tableResultSet = metaData.getTables(dbName, dbName, null, new String[] {"TABLE"})) {
             while (tableResultSet.next()) {
                 String tableName = tableResultSet.getString(3);
                 if (excludedTables.contains(tableName)) {
                     continue;
                 }
+                tableNames.add(tableName);
+            }
+        }
+        return tableNames;
+    }
 
-                Table table = new Table();
-                table.setName(tableName);
+    protected Table fetchTable(DatabaseMetaData metaData, String dbName, String tableName) throws Exception {
+        Table table = new Table();
+        table.setName(tableName);
 
-                String primaryKeyColumnName = "";
-                ResultSet primaryKeyResultSet = metaData.getPrimaryKeys(dbName, dbName, tableName);
+        String primaryKeyColumnName = "";
+        try (ResultSet primaryKeyResultSet = metaData.getPrimaryKeys(dbName, dbName, tableName)) {
+            while (primaryKeyResultSet.next()) {
+                primaryKeyColumnName = primaryKeyResultSet.getString(4);
+            }
+        }
 
-                Set<@Nullable String> uniqIndexColumnNames = Sets.newHashSet();
-                ResultSet uniqIndexResultSet = metaData.getIndexInfo(dbName, dbName, tableName, true, true);
-                while (uniqIndexResultSet.next()) {
-                    uniqIndexColumnNames.add(uniqIndexResultSet.getString(9));
-                }
+        Set<@Nullable String> uniqIndexColumnNames = Sets.newHashSet();
+        Map<String, List<String>> uniqIndexes = new HashMap<>();
+        try (ResultSet uniqIndexResultSet = metaData.getIndexInfo(dbName, dbName, tableName, true, true)) {
+            while (uniqIndexResultSet.next()) {
+                uniqIndexColumnNames.add(uniqIndexResultSet.getString(9));
+                uniqIndexes.computeIfAbsent(uniqIndexResultSet.getString(6), k -> new ArrayList<>())
+                        .add(uniqIndexResultSet.getString(9));
+            }
+        }
+        Set<String> singleUniqIndexColumnNames = singleColumnIndexes(uniqIndexes);
 
-                Set<@Nullable Object> indexColumnNames = Sets.newHashSet();
-                ResultSet indexResultSet = metaData.getIndexInfo(dbName, dbName, tableName, false, true);
-                while (indexResultSet.next()) {
-                    indexColumnNames.add(indexResultSet.getString(9));
+        Set<@Nullable Object> indexColumnNames = Sets.newHashSet();
+        Set<String> leadingIndexColumnNames = new HashSet<>();
+        try (ResultSet indexResultSet = metaData.getIndexInfo(dbName, dbName, tableName, false, true)) {
+            while (indexResultSet.next()) {
+                indexColumnNames.add(indexResultSet.getString(9));
+                // ORDINAL_POSITION从1开始
+                if (indexResultSet.getShort(8) == 1) {
+                    leadingIndexColumnNames.add(indexResultSet.getString(9));
                 }
+            }
+        }
 
+        try (ResultSet columns = metaData.getColumns(null, null, tableName, null)) {
+            while (columns.next()) {
+                TableColumn c = toTableColumn(columns);
+                c.setIndexed(indexColumnNames.contains(c.getColumnName()));
+                c.setLeadingIndexed(leadingIndexColumnNames.contains(c.getColumnName()));
+                c.setUniqIndexed(uniqIndexColumnNames.contains(c.getColumnName()));
+                c.setSingleUniqIndexed(singleUniqIndexColumnNames.contains(c.getColumnName()));
 
-                while (primaryKeyResultSet.next()) {
-                    primaryKeyColumnName = primaryKeyResultSet.getString(4);
+                if (c.getColumnName().equals(primaryKeyColumnName)) {
+                    table.setPrimaryKeyColumn(c);
                 }
 
+                table.addColumn(c);
+            }
+        }
+        if (Objects.isNull(table.getPrimaryKeyColumn())) {
+            throw new MojoExecutionException("require a primary key in table : " + table.getName());
+        }
+        return table;
+    }
 
-                ResultSet columns = metaData.getColumns(null, null, tableName, null);
-                while (columns.next()) {
-                    TableColumn c = new TableColumn();
-                    c.setColumnName(columns.getString(4));
-                    c.setDataType(columns.getInt(5));
-                    c.setTypeName(columns.getString(6));
-                    c.setColumnSize(columns.getInt(7));
-                    c.setNullable(columns.getBoolean(11));
-                    c.setAutoIncrement(columns.getBoolean(23));
-                    c.setIndexed(indexColumnNames.contains(c.getColumnName()));
-                    c.setUniqIndexed(uniqIndexColumnNames.contains(c.getColumnName()));
-
-                    if (c.getColumnName().equals(primaryKeyColumnName)) {
-                        table.setPrimaryKeyColumn(c);
+    /**
+     * 整库一次读取列、主键和索引，在内存中按表分组，往返次数与表数量无关
+     */
+    protected List<Table> fetchTablesInBulk(Connection conn, String dbName, List<String> tableNames)
+            throws Exception {
+        Map<String, Table> name2Table = new LinkedHashMap<>();
+        for (String tableName : tableNames) {
+            Table table = new Table();
+            table.setName(tableName);
+            name2Table.put(tableName, table);
+        }
+
+        Map<String, String> primaryKeyColumnNames = new HashMap<>();
+        Map<String, Set<String>> uniqIndexColumnNames = new HashMap<>();
+        // 表名:唯一索引名:列
+        Map<String, Map<String, List<String>>> uniqIndexes = new HashMap<>();
+        Map<String, Set<String>> indexColumnNames = new HashMap<>();
+        Map<String, Set<String>> leadingIndexColumnNames = new HashMap<>();
+        try (PreparedStatement statement = conn.prepareStatement(STATISTICS_SQL)) {
+            statement.setString(1, dbName);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    String tableName = resultSet.getString(1);
+                    if (!name2Table.containsKey(tableName)) {
+                        continue;
+                    }
+                    String columnName = resultSet.getString(3);
+                    if (PRIMARY_INDEX_NAME.equals(resultSet.getString(2))) {
+                        primaryKeyColumnNames.put(tableName, columnName);
                     }
+                    if (!resultSet.getBoolean(4)) {
+                        uniqIndexColumnNames.computeIfAbsent(tableName, k -> new HashSet<>()).add(columnName);
+                        uniqIndexes.computeIfAbsent(tableName, k -> new HashMap<>())
+                                .computeIfAbsent(resultSet.getString(2), k -> new ArrayList<>()).add(columnName);
+                    }
+                    indexColumnNames.computeIfAbsent(tableName, k -> new HashSet<>()).add(columnName);
+                    if (resultSet.getInt(5) == 1) {
+                        leadingIndexColumnNames.computeIfAbsent(tableName, k -> new HashSet<>()).add(columnName);
+                    }
+                }
+            }
+        }
+        Map<String, Set<String>> singleUniqIndexColumnNames = new HashMap<>();
+        uniqIndexes.forEach((tableName, indexes) ->
+                singleUniqIndexColumnNames.put(tableName, singleColumnIndexes(indexes)));
 
-                    table.addColumn(c);
+        try (ResultSet columns = conn.getMetaData().getColumns(dbName, dbName, "%", "%")) {
+            while (columns.next()) {
+                Table table = name2Table.get(columns.getString(3));
+                if (Objects.isNull(table)) {
+                    continue;
                 }
-                if (Objects.isNull(table.getPrimaryKeyColumn())) {
-                    throw new MojoExecutionException("require a primary key in table : " + table.getName());
+                TableColumn c = toTableColumn(columns);
+                c.setIndexed(indexColumnNames.getOrDefault(table.getName(), Collections.emptySet())
+                        .contains(c.getColumnName()));
+                c.setLeadingIndexed(leadingIndexColumnNames.getOrDefault(table.getName(), Collections.emptySet())
+                        .contains(c.getColumnName()));
+                c.setUniqIndexed(uniqIndexColumnNames.getOrDefault(table.getName(), Collections.emptySet())
+                        .contains(c.getColumnName()));
+                c.setSingleUniqIndexed(singleUniqIndexColumnNames.getOrDefault(table.getName(), Collections.emptySet())
+                        .contains(c.getColumnName()));
+
+                if (c.getColumnName().equals(primaryKeyColumnNames.get(table.getName()))) {
+                    table.setPrimaryKeyColumn(c);
                 }
 
-                tables.add(table);
+                table.addColumn(c);
             }
         }
 
-        return tables;
+        for (Table table : name2Table.values()) {
+            if (Objects.isNull(table.getPrimaryKeyColumn())) {
+                throw new MojoExecutionException("require a primary key in table : " + table.getName());
+            }
+        }
+        return new ArrayList<>(name2Table.values());
+    }
+
+    /**
+     * 多个连接并发逐表读取元数据，适用于不支持批量读取的库；conn作为其中一个连接，总连接数不超过fetchParallelism
+     */
+    protected void fetchTablesInParallel(ConfigProperties configProperties, Connection conn, String dbName,
+            List<String> tableNames, TableSink sink) throws Exception {
+        if (tableNames.isEmpty()) {
+            return;
+        }
+        int parallelism = Math.max(1, Math.min(configProperties.getFetchParallelism(), tableNames.size()));
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism,
+                new ThreadFactoryBuilder().setNameFormat("codegen-fetch-%d").setDaemon(true).build());
+        try (ConnectionPool pool = new ConnectionPool(parallelism, conn, () -> connect(configProperties))) {
+            List<Future<Table>> futures = new ArrayList<>(tableNames.size());
+            for (String tableName : tableNames) {
+                futures.add(executor.submit(() -> {
+                    Connection borrowed = pool.borrow();
+                    try {
+                        return fetchTable(borrowed.getMetaData(), dbName, tableName);
+                    } finally {
+                        pool.release(borrowed);
+                    }
+                }));
+            }
+            for (Future<Table> future : futures) {
+                try {
+                    sink.accept(future.get());
+                } catch (ExecutionException e) {
+                    throw e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private TableColumn toTableColumn(ResultSet columns) throws SQLException {
+        TableColumn c = new TableColumn();
+        c.setColumnName(columns.getString(4));
+        c.setDataType(columns.getInt(5));
+        c.setTypeName(columns.getString(6));
+        c.setColumnSize(columns.getInt(7));
+        c.setNullable(columns.getBoolean(11));
+        c.setAutoIncrement(columns.getBoolean(23));
+        return c;
+    }
+
+    @Override
+    public String fingerprint(ConfigProperties configProperties) throws Exception {
+        String dbName = extractDbFromUrl(configProperties.getJdbcUrl());
+        Hasher hasher = Hashing.sha256().newHasher();
+        hasher.putString(dbName, StandardCharsets.UTF_8);
+        if (Objects.nonNull(configProperties.getExcludedTables())) {
+            for (String excludedTable : new TreeSet<>(Arrays.asList(configProperties.getExcludedTables()))) {
+                hasher.putString("|" + excludedTable, StandardCharsets.UTF_8);
+            }
+        }
+        try (Connection conn = connect(configProperties)) {
+            // 校验和依赖MySQL的information_schema及CRC32，其他数据库无法判断，返回null后总是全量生成
+            if (!isMySQL(conn)) {
+                return null;
+            }
+            putChecksum(hasher, conn, COLUMNS_CHECKSUM_SQL, dbName);
+            putChecksum(hasher, conn, STATISTICS_CHECKSUM_SQL, dbName);
+        }
+        return hasher.hash().toString();
+    }
+
+    /**
+     * 只有一列的索引的列名，用于区分单列唯一索引与联合唯一索引中的列
+     *
+     * @param indexes 索引名:列
+     */
+    static Set<String> singleColumnIndexes(Map<String, List<String>> indexes) {
+        Set<String> columnNames = new HashSet<>();
+        for (List<String> columns : indexes.values()) {
+            if (columns.size() == 1) {
+                columnNames.add(columns.get(0));
+            }
+        }
+        return columnNames;
+    }
+
+    private static boolean isMySQL(Connection conn) throws SQLException {
+        String product = conn.getMetaData().getDatabaseProductName();
+        return StringUtils.containsIgnoreCase(product, "mysql") || StringUtils.containsIgnoreCase(product, "mariadb");
+    }
+
+    private void putChecksum(Hasher hasher, Connection conn, String sql, String dbName) throws SQLException {
+        try (PreparedStatement statement = conn.prepareStatement(sql)) {
+            statement.setString(1, dbName);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    hasher.putString("|" + resultSet.getLong(1) + "|" + resultSet.getString(2), StandardCharsets.UTF_8);
+                }
+            }
+        }
+    }
+
+    protected Connection connect(ConfigProperties configProperties) throws ClassNotFoundException, SQLException {
+        Class.forName(configProperties.getDriver());
+        return DriverManager.getConnection(configProperties.getJdbcUrl(),
+                configProperties.getUsername(),
+                configProperties.getPassword());
     }
 
     @Override
@@ -0,0 +1,166 @@
+package codegen.table;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import org.apache.maven.plugin.MojoExecutionException;
+import codegen.ConfigProperties;
+
+/**
+ * fetchType 3: 直接查询MySQL的information_schema，整库只需三次查询，且只查询目标库
+ *
+ * @date: 2026/10/17
+ **/
+public class MySQLTableFetcher extends JDBCTableFetcher {
+
+    private static final String PRIMARY_KEY_SQL = "SELECT TABLE_NAME, COLUMN_NAME FROM information_schema.KEY_COLUMN_USAGE "
+            + "WHERE TABLE_SCHEMA = ? AND CONSTRAINT_NAME = 'PRIMARY' ORDER BY TABLE_NAME, ORDINAL_POSITION";
+
+    private static final String INDEX_SQL = "SELECT TABLE_NAME, COLUMN_NAME, NON_UNIQUE, INDEX_NAME, SEQ_IN_INDEX "
+            + "FROM information_schema.STATISTICS WHERE TABLE_SCHEMA = ?";
+
+    private static final String COLUMN_SQL = "SELECT c.TABLE_NAME, c.COLUMN_NAME, c.DATA_TYPE, c.COLUMN_TYPE, "
+            + "COALESCE(c.CHARACTER_MAXIMUM_LENGTH, c.NUMERIC_PRECISION, c.DATETIME_PRECISION, 0), "
+            + "c.IS_NULLABLE, c.EXTRA "
+            + "FROM information_schema.COLUMNS c JOIN information_schema.TABLES t "
+            + "ON t.TABLE_SCHEMA = c.TABLE_SCHEMA AND t.TABLE_NAME = c.TABLE_NAME "
+            + "WHERE c.TABLE_SCHEMA = ? AND t.TABLE_TYPE = 'BASE TABLE' "
+            + "ORDER BY c.TABLE_NAME, c.ORDINAL_POSITION";
+
+    @Override
+    public void fetch(ConfigProperties configProperties, TableSink sink) throws Exception {
+        Set<String> excludedTables = new HashSet<>();
+        if (Objects.nonNull(configProperties.getExcludedTables()) && configProperties.getExcludedTables().length > 0) {
+            excludedTables.addAll(Arrays.asList(configProperties.getExcludedTables()));
+        }
+
+        try (Connection conn = connect(configProperties)) {
+            String dbName = extractDbFromUrl(configProperties.getJdbcUrl());
+
+            // 表名:主键列名，联合主键时取最后一列，与JDBCTableFetcher一致
+            Map<String, String> primaryKeyColumnNames = new HashMap<>();
+            try (PreparedStatement statement = conn.prepareStatement(PRIMARY_KEY_SQL)) {
+                statement.setString(1, dbName);
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    while (resultSet.next()) {
+                        primaryKeyColumnNames.put(resultSet.getString(1), resultSet.getString(2));
+                    }
+                }
+            }
+
+            Map<String, Set<String>> uniqIndexColumnNames = new HashMap<>();
+            // 表名:唯一索引名:列
+            Map<String, Map<String, List<String>>> uniqIndexes = new HashMap<>();
+            Map<String, Set<String>> indexColumnNames = new HashMap<>();
+            Map<String, Set<String>> leadingIndexColumnNames = new HashMap<>();
+            try (PreparedStatement statement = conn.prepareStatement(INDEX_SQL)) {
+                statement.setString(1, dbName);
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    while (resultSet.next()) {
+                        String tableName = resultSet.getString(1);
+                        String columnName = resultSet.getString(2);
+                        if (!resultSet.getBoolean(3)) {
+                            uniqIndexColumnNames.computeIfAbsent(tableName, k -> new HashSet<>()).add(columnName);
+                            uniqIndexes.computeIfAbsent(tableName, k -> new HashMap<>())
+                                    .computeIfAbsent(resultSet.getString(4), k -> new ArrayList<>()).add(columnName);
+                        }
+                        indexColumnNames.computeIfAbsent(tableName, k -> new HashSet<>()).add(columnName);
+                        if (resultSet.getInt(5) == 1) {
+                            leadingIndexColumnNames.computeIfAbsent(tableName, k -> new HashSet<>()).add(columnName);
+                        }
+                    }
+                }
+            }
+            Map<String, Set<String>> singleUniqIndexColumnNames = new HashMap<>();
+            uniqIndexes.forEach((tableName, indexes) ->
+                    singleUniqIndexColumnNames.put(tableName, singleColumnIndexes(indexes)));
+
+            try (PreparedStatement statement = conn.prepareStatement(COLUMN_SQL)) {
+                statement.setString(1, dbName);
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    Table table = null;
+                    while (resultSet.next()) {
+                        String tableName = resultSet.getString(1);
+                        if (excludedTables.contains(tableName)) {
+                            continue;
+                        }
+                        // 列按表名排序，表名变化时上一个表已读取完
+                        if (Objects.isNull(table) || !table.getName().equals(tableName)) {
+                            emit(table, sink);
+                            table = new Table();
+                            table.setName(tableName);
+                        }
+                        TableColumn c = toTableColumn(resultSet);
+                        c.setIndexed(indexColumnNames.getOrDefault(tableName, Collections.emptySet())
+                                .contains(c.getColumnName()));
+                        c.setLeadingIndexed(leadingIndexColumnNames.getOrDefault(tableName, Collections.emptySet())
+                                .contains(c.getColumnName()));
+                        c.setUniqIndexed(uniqIndexColumnNames.getOrDefault(tableName, Collections.emptySet())
+                                .contains(c.getColumnName()));
+                        c.setSingleUniqIndexed(singleUniqIndexColumnNames.getOrDefault(tableName, Collections.emptySet())
+                                .contains(c.getColumnName()));
+                        if (c.getColumnName().equals(primaryKeyColumnNames.get(tableName))) {
+                            table.setPrimaryKeyColumn(c);
+                        }
+                        table.addColumn(c);
+                    }
+                    emit(table, sink);
+                }
+            }
+        }
+    }
+
+    private void emit(Table table, TableSink sink) throws Exception {
+        if (Objects.isNull(table)) {
+            return;
+        }
+        if (Objects.isNull(table.getPrimaryKeyColumn())) {
+            throw new MojoExecutionException("require a primary key in table : " + table.getName());
+        }
+        sink.accept(table);
+    }
+
+    private TableColumn toTableColumn(ResultSet resultSet) throws SQLException {
+        String dataType = resultSet.getString(3);
+        String columnType = resultSet.getString(4);
+        String extra = resultSet.getString(7);
+
+        TableColumn c = new TableColumn();
+        c.setColumnName(resultSet.getString(2));
+        c.setDataType(MySQLTypes.toJdbcType(dataType, columnType.toLowerCase().contains("unsigned")));
+        c.setTypeName(dataType.toUpperCase());
+        c.setColumnSize(resultSet.getInt(5));
+        c.setNullable("YES".equalsIgnoreCase(resultSet.getString(6)));
+        c.setAutoIncrement(Objects.nonNull(extra) && extra.toLowerCase().contains("auto_increment"));
+        return c;
+    }
+
+    /**
+     * 整库三次查询已足够快，读取全部后过滤，保证与全量读取的结果一致
+     */
+    @Override
+    public Set<Table> fetch(ConfigProperties configProperties, Set<String> tableNames) throws Exception {
+        Set<Table> tables = new HashSet<>();
+        fetch(configProperties, table -> {
+            if (tableNames.contains(table.getName())) {
+                tables.add(table);
+            }
+        });
+        return tables;
+    }
+
+    @Override
+    public boolean supports(ConfigProperties configProperties) {
+        return configProperties.getFetchType().equals(3);
+    }
+}
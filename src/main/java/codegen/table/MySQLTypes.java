@@ -0,0 +1,75 @@
+package codegen.table;
+
+import java.sql.Types;
+import java.util.Locale;
+
+/**
+ * MySQL列类型到{@link java.sql.Types}的映射，与Connector/J的DatabaseMetaData保持一致
+ *
+ * @date: 2026/10/17
+ **/
+public class MySQLTypes {
+
+    /**
+     * @param dataType 不带长度的类型名，如 varchar、bigint
+     * @param unsigned 是否unsigned
+     */
+    public static int toJdbcType(String dataType, boolean unsigned) {
+        switch (dataType.toLowerCase(Locale.ROOT)) {
+            case "bit":
+                return Types.BIT;
+            case "bool":
+            case "boolean":
+            case "tinyint":
+                return Types.TINYINT;
+            case "smallint":
+                return unsigned ? Types.INTEGER : Types.SMALLINT;
+            case "mediumint":
+                return Types.INTEGER;
+            case "int":
+            case "integer":
+                return unsigned ? Types.BIGINT : Types.INTEGER;
+            case "bigint":
+                return Types.BIGINT;
+            case "decimal":
+            case "numeric":
+                return Types.DECIMAL;
+            case "float":
+                return Types.REAL;
+            case "double":
+            case "real":
+                return Types.DOUBLE;
+            case "char":
+            case "enum":
+            case "set":
+                return Types.CHAR;
+            case "varchar":
+                return Types.VARCHAR;
+            case "tinytext":
+            case "text":
+            case "mediumtext":
+            case "longtext":
+            case "json":
+                return Types.LONGVARCHAR;
+            case "date":
+            case "year":
+                return Types.DATE;
+            case "time":
+                return Types.TIME;
+            case "datetime":
+            case "timestamp":
+                return Types.TIMESTAMP;
+            case "binary":
+                return Types.BINARY;
+            case "varbinary":
+                return Types.VARBINARY;
+            case "tinyblob":
+            case "blob":
+            case "mediumblob":
+            case "longblob":
+                return Types.LONGVARBINARY;
+            default:
+                return Types.OTHER;
+        }
+    }
+}
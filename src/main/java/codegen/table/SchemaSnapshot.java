@@ -0,0 +1,31 @@
+package codegen.table;
+
+import java.io.Serializable;
+import java.util.Set;
+
+/**
+ * 持久化的表结构快照
+ *
+ * @date: 2026/10/17
+ **/
+public class SchemaSnapshot implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String fingerprint;
+
+    private final Set<Table> tables;
+
+    public SchemaSnapshot(String fingerprint, Set<Table> tables) {
+        this.fingerprint = fingerprint;
+        this.tables = tables;
+    }
+
+    public String getFingerprint() {
+        return fingerprint;
+    }
+
+    public Set<Table> getTables() {
+        return tables;
+    }
+}
@@ -0,0 +1,105 @@
+package codegen.table;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.maven.plugin.MojoExecutionException;
+import codegen.ConfigProperties;
+
+/**
+ * fetchType 1: 表结构指纹与快照一致时直接使用快照，否则通过jdbc获取并刷新快照
+ * fetchType 2: 离线模式，只读取快照，不连接数据库
+ *
+ * @date: 2026/10/17
+ **/
+public class SnapshotTableFetcher implements TableFetcher {
+
+    public static final String DEFAULT_SNAPSHOT_FILE = "codegen-schema.snapshot";
+
+    private final TableFetcher delegate = new JDBCTableFetcher();
+
+    @Override
+    public Set<Table> fetch(ConfigProperties configProperties) throws Exception {
+        Path snapshotPath = snapshotPath(configProperties);
+        SchemaSnapshot snapshot = readSnapshot(snapshotPath);
+
+        if (isOffline(configProperties)) {
+            if (Objects.isNull(snapshot)) {
+                throw new MojoExecutionException("Failed to generate code: schema snapshot not found: " + snapshotPath);
+            }
+            return snapshot.getTables();
+        }
+
+        String fingerprint = delegate.fingerprint(configProperties);
+        if (Objects.nonNull(snapshot) && Objects.nonNull(fingerprint)
+                && fingerprint.equals(snapshot.getFingerprint())) {
+            return snapshot.getTables();
+        }
+
+        Set<Table> tables = delegate.fetch(configProperties);
+        writeSnapshot(snapshotPath, new SchemaSnapshot(fingerprint, new HashSet<>(tables)));
+        return tables;
+    }
+
+    @Override
+    public String fingerprint(ConfigProperties configProperties) throws Exception {
+        if (isOffline(configProperties)) {
+            SchemaSnapshot snapshot = readSnapshot(snapshotPath(configProperties));
+            return Objects.isNull(snapshot) ? null : snapshot.getFingerprint();
+        }
+        return delegate.fingerprint(configProperties);
+    }
+
+    @Override
+    public boolean supports(ConfigProperties configProperties) {
+        return configProperties.getFetchType().equals(1) || isOffline(configProperties);
+    }
+
+    private boolean isOffline(ConfigProperties configProperties) {
+        return configProperties.getFetchType().equals(2);
+    }
+
+    public static Path snapshotPath(ConfigProperties configProperties) {
+        if (StringUtils.isNotBlank(configProperties.getSchemaSnapshotPath())) {
+            return Paths.get(configProperties.getSchemaSnapshotPath());
+        }
+        if (StringUtils.isNotBlank(configProperties.getName())) {
+            // 多数据源时各自一个快照文件，避免互相覆盖
+            return Paths.get(configProperties.getBaseDir(), "target",
+                    "codegen-schema-" + configProperties.getName() + ".snapshot");
+        }
+        return Paths.get(configProperties.getBaseDir(), "target", DEFAULT_SNAPSHOT_FILE);
+    }
+
+    private SchemaSnapshot readSnapshot(Path snapshotPath) {
+        if (!Files.exists(snapshotPath)) {
+            return null;
+        }
+        try (InputStream in = Files.newInputStream(snapshotPath);
+                ObjectInputStream objectIn = new ObjectInputStream(in)) {
+            return (SchemaSnapshot) objectIn.readObject();
+        } catch (IOException | ClassNotFoundException | ClassCastException e) {
+            // 快照损坏或版本不兼容时视为不存在
+            return null;
+        }
+    }
+
+    private void writeSnapshot(Path snapshotPath, SchemaSnapshot snapshot) throws IOException {
+        if (Objects.nonNull(snapshotPath.getParent())) {
+            Files.createDirectories(snapshotPath.getParent());
+        }
+        try (OutputStream out = Files.newOutputStream(snapshotPath);
+                ObjectOutputStream objectOut = new ObjectOutputStream(out)) {
+            objectOut.writeObject(snapshot);
+        }
+    }
+}
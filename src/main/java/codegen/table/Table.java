@@ -1,24 +1,50 @@
 package codegen.table;
 
-import java.util.HashSet;
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashSet;
+import java.util.Objects;
 import java.util.Set;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
 
 /**
  *
  * @author: baotingyu
  * @date: 2023/6/25
  **/
-public class Table {
+public class Table implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
     private String name;
 
     private TableColumn primaryKeyColumn;
 
-    private Set<TableColumn> columns = new HashSet<>();
+    // 按列在表中的顺序
+    private Set<TableColumn> columns = new LinkedHashSet<>();
 
     public void addColumn(TableColumn column){
         columns.add(column);
     }
 
+    /**
+     * 表结构指纹，覆盖生成代码用到的全部结构信息，结构不变时指纹不变
+     */
+    public String fingerprint() {
+        Hasher hasher = Hashing.sha256().newHasher();
+        hasher.putString(name, StandardCharsets.UTF_8);
+        hasher.putString("|" + (Objects.isNull(primaryKeyColumn) ? "" : primaryKeyColumn.getColumnName()),
+                StandardCharsets.UTF_8);
+        for (TableColumn column : columns) {
+            hasher.putString("|" + column.getColumnName() + "," + column.getDataType() + "," + column.getTypeName()
+                    + "," + column.getColumnSize() + "," + column.isNullable() + "," + column.isAutoIncrement()
+                    + "," + column.isIndexed() + "," + column.isLeadingIndexed() + "," + column.isUniqIndexed() + "," + column.isSingleUniqIndexed(),
+                    StandardCharsets.UTF_8);
+        }
+        return hasher.hash().toString();
+    }
+
     public String getName() {
         return name;
     }
@@ -1,5 +1,6 @@
 package codegen.table;
 
+import java.io.Serializable;
 import java.util.Objects;
 
 /**
@@ -8,7 +9,10 @@ import java.util.Objects;
  * @date: 2023/6/25
  **/
 
-public class TableColumn {
+public class TableColumn implements Serializable {
+
+    // 字段变化时递增，旧版本的快照读取失败后重新获取表结构
+    private static final long serialVersionUID = 2L;
 
     private String columnName;
     /**
@@ -25,8 +29,15 @@ public class TableColumn {
 
     private boolean indexed;
 
+    // 是某个索引(含联合索引)的第一列，按该列的等值条件可以使用索引
+    private boolean leadingIndexed;
+
+    // 属于某个唯一索引(可能是联合唯一索引的一列)
     private boolean uniqIndexed;
 
+    // 本身是一个单列唯一索引(含单列主键)，按该列查询最多一行
+    private boolean singleUniqIndexed;
+
     public void setDataType(int dataType) {
         this.dataType = dataType;
     }
@@ -43,6 +54,14 @@ public class TableColumn {
         this.indexed = indexed;
     }
 
+    public boolean isLeadingIndexed() {
+        return leadingIndexed;
+    }
+
+    public void setLeadingIndexed(boolean leadingIndexed) {
+        this.leadingIndexed = leadingIndexed;
+    }
+
     public boolean isUniqIndexed() {
         return uniqIndexed;
     }
@@ -51,6 +70,14 @@ public class TableColumn {
         this.uniqIndexed = uniqIndexed;
     }
 
+    public boolean isSingleUniqIndexed() {
+        return singleUniqIndexed;
+    }
+
+    public void setSingleUniqIndexed(boolean singleUniqIndexed) {
+        this.singleUniqIndexed = singleUniqIndexed;
+    }
+
     public String getColumnName() {
         return columnName;
     }
@@ -1,5 +1,8 @@
 package codegen.table;
 
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
 import codegen.ConfigProperties;
 
@@ -13,4 +16,49 @@ public interface TableFetcher {
     Set<Table> fetch(ConfigProperties configProperties) throws Exception;
 
     boolean supports(ConfigProperties configProperties);
+
+    /**
+     * 流式获取：每读取完一个表即交给sink，默认实现读取全部后逐个交出
+     */
+    default void fetch(ConfigProperties configProperties, TableSink sink) throws Exception {
+        for (Table table : fetch(configProperties)) {
+            sink.accept(table);
+        }
+    }
+
+    /**
+     * 表结构指纹，表结构不变时指纹不变；返回null表示无法计算
+     */
+    default String fingerprint(ConfigProperties configProperties) throws Exception {
+        return null;
+    }
+
+    /**
+     * 只读取指定的表，默认实现读取全部后过滤
+     */
+    default Set<Table> fetch(ConfigProperties configProperties, Set<String> tableNames) throws Exception {
+        Set<Table> tables = new HashSet<>();
+        for (Table table : fetch(configProperties)) {
+            if (tableNames.contains(table.getName())) {
+                tables.add(table);
+            }
+        }
+        return tables;
+    }
+
+    /**
+     * 每个表的结构指纹(表名:指纹)，watch模式据此判断哪些表需要重新生成；默认实现读取全部表后计算
+     */
+    default Map<String, String> tableFingerprints(ConfigProperties configProperties) throws Exception {
+        Map<String, String> fingerprints = new HashMap<>();
+        for (Table table : fetch(configProperties)) {
+            fingerprints.put(table.getName(), table.fingerprint());
+        }
+        return fingerprints;
+    }
+
+    @FunctionalInterface
+    interface TableSink {
+        void accept(Table table) throws Exception;
+    }
 }